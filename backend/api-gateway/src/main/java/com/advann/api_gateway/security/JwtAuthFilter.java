@@ -90,6 +90,17 @@ public class JwtAuthFilter implements GlobalFilter {
             }
         }
 
+        // =========================
+        // ORDER SEARCH / EXPORT → ADMIN ONLY
+        // Example: GET /api/orders/admin/export
+        // =========================
+        if (path.startsWith("/api/orders/admin")) {
+            if (!"ROLE_ADMIN".equals(role)) {
+                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                return exchange.getResponse().setComplete();
+            }
+        }
+
         // =========================
         // CART / ORDERS / PAYMENT → CUSTOMER OR ADMIN
         // =========================
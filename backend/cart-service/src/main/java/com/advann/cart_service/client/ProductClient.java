@@ -1,14 +1,24 @@
 package com.advann.cart_service.client;
 
 import com.advann.cart_service.dto.ProductResponseDto;
+import com.advann.cart_service.dto.ProductSummaryDto;
 import com.advann.cart_service.payload.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "product-service")
 public interface ProductClient {
 
     @GetMapping("/api/products/{id}")
     ApiResponse<ProductResponseDto> getProductById(@PathVariable("id") Long id);
+
+    // Unknown ids are left out of the returned map
+    @PostMapping("/internal/products/batch")
+    ApiResponse<Map<Long, ProductSummaryDto>> getProductsByIds(@RequestBody List<Long> ids);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.advann.cart_service.controller;
 
 import com.advann.cart_service.dto.CartRequestDto;
 import com.advann.cart_service.dto.CartResponseDto;
+import com.advann.cart_service.dto.OrderedItemsRequestDto;
 import com.advann.cart_service.payload.ApiResponse;
 import com.advann.cart_service.service.services.CartService;
 import jakarta.validation.Valid;
@@ -99,4 +100,22 @@ public class CartController {
                         .build()
         );
     }
+
+    // Called by order-service once an order is placed; safe to repeat
+    @PostMapping("/{userId}/remove-ordered")
+    public ResponseEntity<ApiResponse<Object>> removeOrderedItems(
+            @PathVariable Long userId,
+            @Valid @RequestBody OrderedItemsRequestDto dto
+    ) {
+
+        cartService.removeOrderedItems(userId, dto);
+
+        return ResponseEntity.ok(
+                ApiResponse.builder()
+                        .success(true)
+                        .message("Ordered items removed from cart successfully")
+                        .data(null)
+                        .build()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.advann.cart_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+// The lines of a placed order, taken out of the cart they were ordered from
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderedItemsRequestDto {
+
+    @NotNull(message = "OrderId is required")
+    private Long orderId;
+
+    @NotEmpty(message = "Items are required")
+    private List<@Valid OrderedItemDto> items;
+}
@@ -23,6 +23,9 @@ public class Cart {
     @Column(nullable = false)
     private Long userId;
 
+    // newest order whose lines were taken out of this cart, see CartStore#removeOrdered
+    private Long lastOrderId;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
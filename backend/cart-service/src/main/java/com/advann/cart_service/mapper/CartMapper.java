@@ -0,0 +1,22 @@
+package com.advann.cart_service.mapper;
+
+import com.advann.cart_service.dto.CartItemResponseDto;
+import com.advann.cart_service.dto.ProductSummaryDto;
+import com.advann.cart_service.store.StoredCartItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface CartMapper {
+
+    // Price and quantity come from the cart item (price at add time), not the current product
+    @Mapping(target = "id", source = "item.id")
+    @Mapping(target = "productId", source = "item.productId")
+    @Mapping(target = "price", source = "item.price")
+    @Mapping(target = "quantity", source = "item.quantity")
+    @Mapping(target = "totalPrice", source = "item.totalPrice")
+    @Mapping(target = "productName", source = "product.name")
+    @Mapping(target = "productImage", source = "product.imageUrl")
+    CartItemResponseDto toItemDto(StoredCartItem item, ProductSummaryDto product);
+}
@@ -2,6 +2,9 @@ package com.advann.cart_service.repository;
 
 import com.advann.cart_service.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -10,4 +13,12 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
 
     boolean existsByUserId(Long userId);
+
+    // Locks the cart for the order; 0 means that order (or a newer one) was already applied
+    @Modifying
+    @Query("""
+            UPDATE Cart c SET c.lastOrderId = :orderId
+            WHERE c.id = :cartId AND (c.lastOrderId IS NULL OR c.lastOrderId < :orderId)
+            """)
+    int markOrderApplied(@Param("cartId") Long cartId, @Param("orderId") Long orderId);
 }
\ No newline at end of file
@@ -4,30 +4,33 @@ import com.advann.cart_service.client.ProductClient;
 import com.advann.cart_service.dto.CartItemResponseDto;
 import com.advann.cart_service.dto.CartRequestDto;
 import com.advann.cart_service.dto.CartResponseDto;
+import com.advann.cart_service.dto.OrderedItemDto;
+import com.advann.cart_service.dto.OrderedItemsRequestDto;
 import com.advann.cart_service.dto.ProductResponseDto;
-import com.advann.cart_service.entity.Cart;
-import com.advann.cart_service.entity.CartItem;
+import com.advann.cart_service.dto.ProductSummaryDto;
 import com.advann.cart_service.exception.ResourceNotFoundException;
+import com.advann.cart_service.mapper.CartMapper;
 import com.advann.cart_service.payload.ApiResponse;
-import com.advann.cart_service.repository.CartItemRepository;
-import com.advann.cart_service.repository.CartRepository;
 import com.advann.cart_service.service.services.CartService;
-import jakarta.transaction.Transactional;
+import com.advann.cart_service.store.CartStore;
+import com.advann.cart_service.store.StoredCart;
+import com.advann.cart_service.store.StoredCartItem;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    // Postgres or Redis, depending on app.cart.store
+    private final CartStore cartStore;
     private final ProductClient productClient;
-    private final ModelMapper modelMapper;
+    private final CartMapper cartMapper;
 
     @Override
     public CartResponseDto addToCart(CartRequestDto dto) {
@@ -40,36 +43,7 @@ public class CartServiceImpl implements CartService {
 
         ProductResponseDto product = productResponse.getData();
 
-        // find or create cart
-        Cart cart = cartRepository.findByUserId(dto.getUserId())
-                .orElseGet(() -> cartRepository.save(
-                        Cart.builder()
-                                .userId(dto.getUserId())
-                                .build()
-                ));
-
-        // check if item already exists
-        CartItem existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), dto.getProductId())
-                .orElse(null);
-
-        if (existingItem != null) {
-
-            existingItem.setQuantity(existingItem.getQuantity() + dto.getQuantity());
-            existingItem.setPrice(product.getPrice());
-
-            cartItemRepository.save(existingItem);
-
-        } else {
-
-            CartItem newItem = CartItem.builder()
-                    .cart(cart)
-                    .productId(dto.getProductId())
-                    .quantity(dto.getQuantity())
-                    .price(product.getPrice())
-                    .build();
-
-            cartItemRepository.save(newItem);
-        }
+        cartStore.addItem(dto.getUserId(), dto.getProductId(), dto.getQuantity(), product.getPrice());
 
         return getCartByUserId(dto.getUserId());
     }
@@ -77,30 +51,14 @@ public class CartServiceImpl implements CartService {
     @Override
     public CartResponseDto getCartByUserId(Long userId) {
 
-        Cart cart = cartRepository.findByUserId(userId)
+        StoredCart cart = cartStore.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found for userId: " + userId));
 
-        List<CartItem> cartItems = cartItemRepository.findByCartId(cart.getId());
+        // extra fields (name, image) from product-service, one batch call for the whole cart
+        Map<Long, ProductSummaryDto> products = fetchProducts(cart.items());
 
-        List<CartItemResponseDto> responseItems = cartItems.stream()
-                .map(item -> {
-
-                    ApiResponse<ProductResponseDto> productResponse =
-                            productClient.getProductById(item.getProductId());
-
-                    ProductResponseDto product = productResponse.getData();
-
-                    // ✅ ModelMapper used here
-                    CartItemResponseDto itemDto = modelMapper.map(item, CartItemResponseDto.class);
-
-                    // extra fields from product-service
-                    if (product != null) {
-                        itemDto.setProductName(product.getName());
-                        itemDto.setProductImage(product.getImageUrl());
-                    }
-
-                    return itemDto;
-                })
+        List<CartItemResponseDto> responseItems = cart.items().stream()
+                .map(item -> cartMapper.toItemDto(item, products.get(item.productId())))
                 .toList();
 
         BigDecimal grandTotal = responseItems.stream()
@@ -112,8 +70,8 @@ public class CartServiceImpl implements CartService {
                 .sum();
 
         return CartResponseDto.builder()
-                .cartId(cart.getId())
-                .userId(cart.getUserId())
+                .cartId(cart.cartId())
+                .userId(cart.userId())
                 .items(responseItems)
                 .grandTotal(grandTotal)
                 .totalItems(totalItems)
@@ -123,41 +81,44 @@ public class CartServiceImpl implements CartService {
     @Override
     public CartResponseDto updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
 
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found for userId: " + userId));
-
-        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found for productId: " + productId));
-
-        if (quantity <= 0) {
-            cartItemRepository.delete(cartItem);
-        } else {
-            cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
-        }
+        cartStore.updateQuantity(userId, productId, quantity);
 
         return getCartByUserId(userId);
     }
 
     @Override
     public void removeItemFromCart(Long userId, Long productId) {
+        cartStore.removeItem(userId, productId);
+    }
 
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found for userId: " + userId));
+    @Override
+    public void clearCart(Long userId) {
+        cartStore.clear(userId);
+    }
+
+    @Override
+    public void removeOrderedItems(Long userId, OrderedItemsRequestDto dto) {
 
-        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found for productId: " + productId));
+        // an order may list a product twice
+        Map<Long, Integer> quantities = dto.getItems().stream()
+                .collect(Collectors.toMap(OrderedItemDto::getProductId, OrderedItemDto::getQuantity, Integer::sum));
 
-        cartItemRepository.delete(cartItem);
+        cartStore.removeOrdered(userId, dto.getOrderId(), quantities);
     }
 
-    @Transactional
-    @Override
-    public void clearCart(Long userId) {
+    private Map<Long, ProductSummaryDto> fetchProducts(List<StoredCartItem> cartItems) {
 
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found for userId: " + userId));
+        if (cartItems.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> productIds = cartItems.stream()
+                .map(StoredCartItem::productId)
+                .distinct()
+                .toList();
+
+        ApiResponse<Map<Long, ProductSummaryDto>> response = productClient.getProductsByIds(productIds);
 
-        cartItemRepository.deleteByCartId(cart.getId());
+        return response != null && response.getData() != null ? response.getData() : Map.of();
     }
-}
\ No newline at end of file
+}
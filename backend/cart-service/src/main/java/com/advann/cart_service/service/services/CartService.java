@@ -2,6 +2,7 @@ package com.advann.cart_service.service.services;
 
 import com.advann.cart_service.dto.CartRequestDto;
 import com.advann.cart_service.dto.CartResponseDto;
+import com.advann.cart_service.dto.OrderedItemsRequestDto;
 
 public interface CartService {
 
@@ -14,4 +15,6 @@ public interface CartService {
     void removeItemFromCart(Long userId, Long productId);
 
     void clearCart(Long userId);
+
+    void removeOrderedItems(Long userId, OrderedItemsRequestDto dto);
 }
\ No newline at end of file
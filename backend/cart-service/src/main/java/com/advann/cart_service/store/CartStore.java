@@ -0,0 +1,33 @@
+package com.advann.cart_service.store;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where carts live: Postgres ({@link JpaCartStore}, the default) or one Redis hash per user
+ * ({@link RedisCartStore}), selected by {@code app.cart.store}. Missing carts and items are
+ * reported with {@code ResourceNotFoundException}, the same way in both.
+ */
+public interface CartStore {
+
+    // Creates the cart and the line as needed; the quantity is added, the price replaced
+    void addItem(Long userId, Long productId, int quantity, BigDecimal price);
+
+    Optional<StoredCart> findByUserId(Long userId);
+
+    // A quantity of 0 or less removes the line
+    void updateQuantity(Long userId, Long productId, int quantity);
+
+    void removeItem(Long userId, Long productId);
+
+    // Empties the cart; the cart itself stays
+    void clear(Long userId);
+
+    /**
+     * Takes a placed order's quantities out of the cart, dropping lines that reach zero; lines
+     * added or topped up since stay. Applied once per order: a repeat, or an order older than
+     * the last one applied, changes nothing, so a late retry never removes what came after it.
+     */
+    void removeOrdered(Long userId, Long orderId, Map<Long, Integer> quantities);
+}
@@ -0,0 +1,130 @@
+package com.advann.cart_service.store;
+
+import com.advann.cart_service.entity.Cart;
+import com.advann.cart_service.entity.CartItem;
+import com.advann.cart_service.repository.CartItemRepository;
+import com.advann.cart_service.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copies Redis carts to the {@code cart}/{@code cart_items} tables for analytics, off the
+ * request path. Each run claims a batch of users from the dirty set and replaces their stored
+ * cart with the current hash, acknowledging each claim only after its transaction commits.
+ * A cart that fails to persist goes back into the set, and claims left behind by an instance
+ * that died mid-run are requeued after {@code claim-timeout}, so the tables catch up at least
+ * once after every change. A cart that expired in Redis keeps its last persisted copy.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "redis")
+public class CartWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehind.class);
+
+    private final RedisCartStore redisCartStore;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.cart.persistence.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cart.persistence.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.cart.persistence.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    public CartWriteBehind(RedisCartStore redisCartStore,
+                           CartRepository cartRepository,
+                           CartItemRepository cartItemRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.redisCartStore = redisCartStore;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.persistence.interval-ms:5000}")
+    public void flush() {
+
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> dirty;
+
+        try {
+            redisCartStore.releaseExpiredClaims(claimTimeout, batchSize);
+            dirty = redisCartStore.claimDirty(batchSize);
+        } catch (Exception e) {
+            log.warn("Cart write-behind could not read dirty carts: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < dirty.size(); i++) {
+            try {
+                persist(dirty.get(i));
+            } catch (Exception e) {
+                log.warn("Cart write-behind failed for userId {}: {}", dirty.get(i), e.getMessage());
+                release(dirty.subList(i, dirty.size()));
+                return;
+            }
+            acknowledge(dirty.get(i));
+        }
+    }
+
+    // An unacknowledged claim is requeued once it times out, so a failure here only delays the next copy
+    private void acknowledge(Long userId) {
+        try {
+            redisCartStore.acknowledge(userId);
+        } catch (Exception e) {
+            log.warn("Cart write-behind could not acknowledge userId {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // this cart and the rest of the batch are retried on the next run, or after the claim timeout
+    private void release(List<Long> userIds) {
+        try {
+            redisCartStore.release(userIds);
+        } catch (Exception e) {
+            log.warn("Cart write-behind could not release {} claimed carts: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    private void persist(Long userId) {
+
+        Optional<StoredCart> stored = redisCartStore.findByUserId(userId);
+
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Cart cart = cartRepository.findByUserId(userId)
+                    .orElseGet(() -> cartRepository.save(Cart.builder().userId(userId).build()));
+
+            cartItemRepository.deleteByCartId(cart.getId());
+
+            cartItemRepository.saveAll(stored.get().items().stream()
+                    .map(item -> CartItem.builder()
+                            .cart(cart)
+                            .productId(item.productId())
+                            .quantity(item.quantity())
+                            .price(item.price())
+                            .build())
+                    .toList());
+        });
+    }
+}
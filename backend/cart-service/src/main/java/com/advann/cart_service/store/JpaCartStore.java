@@ -0,0 +1,130 @@
+package com.advann.cart_service.store;
+
+import com.advann.cart_service.entity.Cart;
+import com.advann.cart_service.entity.CartItem;
+import com.advann.cart_service.exception.ResourceNotFoundException;
+import com.advann.cart_service.repository.CartItemRepository;
+import com.advann.cart_service.repository.CartRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public void addItem(Long userId, Long productId, int quantity, BigDecimal price) {
+
+        // find or create cart
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> cartRepository.save(
+                        Cart.builder()
+                                .userId(userId)
+                                .build()
+                ));
+
+        // check if item already exists
+        CartItem existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
+                .orElse(null);
+
+        if (existingItem != null) {
+
+            existingItem.setQuantity(existingItem.getQuantity() + quantity);
+            existingItem.setPrice(price);
+
+            cartItemRepository.save(existingItem);
+
+        } else {
+
+            CartItem newItem = CartItem.builder()
+                    .cart(cart)
+                    .productId(productId)
+                    .quantity(quantity)
+                    .price(price)
+                    .build();
+
+            cartItemRepository.save(newItem);
+        }
+    }
+
+    @Override
+    public Optional<StoredCart> findByUserId(Long userId) {
+
+        return cartRepository.findByUserId(userId)
+                .map(cart -> new StoredCart(
+                        cart.getId(),
+                        cart.getUserId(),
+                        cartItemRepository.findByCartId(cart.getId()).stream()
+                                .map(item -> new StoredCartItem(item.getId(), item.getProductId(),
+                                        item.getQuantity(), item.getPrice(), item.getTotalPrice()))
+                                .toList()));
+    }
+
+    @Override
+    public void updateQuantity(Long userId, Long productId, int quantity) {
+
+        CartItem cartItem = findItem(userId, productId);
+
+        if (quantity <= 0) {
+            cartItemRepository.delete(cartItem);
+        } else {
+            cartItem.setQuantity(quantity);
+            cartItemRepository.save(cartItem);
+        }
+    }
+
+    @Override
+    public void removeItem(Long userId, Long productId) {
+        cartItemRepository.delete(findItem(userId, productId));
+    }
+
+    @Transactional
+    @Override
+    public void clear(Long userId) {
+
+        Cart cart = findCart(userId);
+
+        cartItemRepository.deleteByCartId(cart.getId());
+    }
+
+    @Transactional
+    @Override
+    public void removeOrdered(Long userId, Long orderId, Map<Long, Integer> quantities) {
+
+        Cart cart = findCart(userId);
+
+        if (cartRepository.markOrderApplied(cart.getId(), orderId) == 0) {
+            return;
+        }
+
+        quantities.forEach((productId, quantity) ->
+                cartItemRepository.findByCartIdAndProductId(cart.getId(), productId).ifPresent(item -> {
+                    if (item.getQuantity() <= quantity) {
+                        cartItemRepository.delete(item);
+                    } else {
+                        item.setQuantity(item.getQuantity() - quantity);
+                        cartItemRepository.save(item);
+                    }
+                }));
+    }
+
+    private Cart findCart(Long userId) {
+        return cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found for userId: " + userId));
+    }
+
+    private CartItem findItem(Long userId, Long productId) {
+        return cartItemRepository.findByCartIdAndProductId(findCart(userId).getId(), productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found for productId: " + productId));
+    }
+}
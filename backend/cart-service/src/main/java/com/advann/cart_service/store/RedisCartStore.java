@@ -0,0 +1,278 @@
+package com.advann.cart_service.store;
+
+import com.advann.cart_service.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Carts held in Redis, one hash per user: {@code qty:<productId>} and {@code price:<productId>}
+ * per line, plus {@code createdAt}, which keeps an emptied cart in existence, and
+ * {@code lastOrderId} once an order was placed from it. Every write is one
+ * atomic script ({@code HINCRBY} for additions), so concurrent clicks never lose an update and
+ * the hot path runs no SQL. Each write renews the cart's TTL; a cart left alone that long expires.
+ * <p>
+ * With {@code app.cart.persistence.enabled}, each write also marks the user in a dirty set that
+ * {@link CartWriteBehind} drains to Postgres for analytics. Draining moves users into a claimed
+ * set, scored by claim time, and a user leaves it only once its cart is persisted; claims that
+ * were never acknowledged are put back, so a crash or a failed write loses no change.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    private static final String KEY_PREFIX = "cart::";
+    private static final String DIRTY_KEY = "cart:dirty";
+    private static final String CLAIMED_KEY = "cart:dirty:claimed";
+
+    private static final String QUANTITY_PREFIX = "qty:";
+    private static final String PRICE_PREFIX = "price:";
+    private static final String CREATED_AT = "createdAt";
+
+    private static final long CART_NOT_FOUND = -2;
+    private static final long ITEM_NOT_FOUND = -1;
+
+    // KEYS[1] = cart, KEYS[2] = dirty set; ARGV = productId, quantity, price, ttl ms, now ms, track, userId
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>("""
+            redis.call('HSETNX', KEYS[1], 'createdAt', ARGV[5])
+            redis.call('HINCRBY', KEYS[1], 'qty:' .. ARGV[1], ARGV[2])
+            redis.call('HSET', KEYS[1], 'price:' .. ARGV[1], ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            if ARGV[6] == '1' then redis.call('SADD', KEYS[2], ARGV[7]) end
+            return 1
+            """, Long.class);
+
+    // ARGV = productId, quantity (<= 0 removes the line), ttl ms, track, userId. -2 no cart, -1 no such line.
+    private static final RedisScript<Long> SET_QUANTITY = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            if redis.call('HEXISTS', KEYS[1], 'qty:' .. ARGV[1]) == 0 then return -1 end
+            if tonumber(ARGV[2]) <= 0 then
+                redis.call('HDEL', KEYS[1], 'qty:' .. ARGV[1], 'price:' .. ARGV[1])
+            else
+                redis.call('HSET', KEYS[1], 'qty:' .. ARGV[1], ARGV[2])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            if ARGV[4] == '1' then redis.call('SADD', KEYS[2], ARGV[5]) end
+            return 1
+            """, Long.class);
+
+    // ARGV = ttl ms, track, userId. Drops every line but keeps the cart. -2 no cart.
+    private static final RedisScript<Long> CLEAR = new DefaultRedisScript<>("""
+            local createdAt = redis.call('HGET', KEYS[1], 'createdAt')
+            if not createdAt then return -2 end
+            local lastOrderId = redis.call('HGET', KEYS[1], 'lastOrderId')
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'createdAt', createdAt)
+            if lastOrderId then redis.call('HSET', KEYS[1], 'lastOrderId', lastOrderId) end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            if ARGV[2] == '1' then redis.call('SADD', KEYS[2], ARGV[3]) end
+            return 1
+            """, Long.class);
+
+    // ARGV = orderId, ttl ms, track, userId, then productId/quantity pairs. -2 no cart, 0 already applied.
+    private static final RedisScript<Long> REMOVE_ORDERED = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            local last = redis.call('HGET', KEYS[1], 'lastOrderId')
+            if last and tonumber(last) >= tonumber(ARGV[1]) then return 0 end
+            redis.call('HSET', KEYS[1], 'lastOrderId', ARGV[1])
+            for i = 5, #ARGV, 2 do
+                local field = 'qty:' .. ARGV[i]
+                if redis.call('HEXISTS', KEYS[1], field) == 1
+                        and redis.call('HINCRBY', KEYS[1], field, -tonumber(ARGV[i + 1])) <= 0 then
+                    redis.call('HDEL', KEYS[1], field, 'price:' .. ARGV[i])
+                end
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            if ARGV[3] == '1' then redis.call('SADD', KEYS[2], ARGV[4]) end
+            return 1
+            """, Long.class);
+
+    // KEYS[1] = dirty set, KEYS[2] = claimed zset; ARGV = count, now ms
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_DIRTY = new DefaultRedisScript<>("""
+            local userIds = redis.call('SPOP', KEYS[1], ARGV[1])
+            for _, userId in ipairs(userIds) do redis.call('ZADD', KEYS[2], ARGV[2], userId) end
+            return userIds
+            """, List.class);
+
+    // KEYS as above; ARGV = userIds. Back into the dirty set, e.g. after a failed write.
+    private static final RedisScript<Long> RELEASE_CLAIMED = new DefaultRedisScript<>("""
+            for _, userId in ipairs(ARGV) do
+                redis.call('SADD', KEYS[1], userId)
+                redis.call('ZREM', KEYS[2], userId)
+            end
+            return #ARGV
+            """, Long.class);
+
+    // KEYS as above; ARGV = claimed at or before (ms), max count
+    private static final RedisScript<Long> RELEASE_EXPIRED_CLAIMS = new DefaultRedisScript<>("""
+            local userIds = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, userId in ipairs(userIds) do
+                redis.call('SADD', KEYS[1], userId)
+                redis.call('ZREM', KEYS[2], userId)
+            end
+            return #userIds
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.cart.redis.ttl:30d}")
+    private Duration ttl;
+
+    @Value("${app.cart.persistence.enabled:false}")
+    private boolean persistenceEnabled;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void addItem(Long userId, Long productId, int quantity, BigDecimal price) {
+        redisTemplate.execute(ADD, keys(userId),
+                productId.toString(), String.valueOf(quantity), price.toPlainString(),
+                String.valueOf(ttl.toMillis()), String.valueOf(System.currentTimeMillis()), track(), userId.toString());
+    }
+
+    @Override
+    public Optional<StoredCart> findByUserId(Long userId) {
+
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key(userId));
+
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<StoredCartItem> items = new ArrayList<>();
+
+        fields.forEach((field, value) -> {
+
+            String name = field.toString();
+
+            if (name.startsWith(QUANTITY_PREFIX)) {
+
+                String productId = name.substring(QUANTITY_PREFIX.length());
+                int quantity = Integer.parseInt(value.toString());
+                Object price = fields.get(PRICE_PREFIX + productId);
+
+                // a line is always written whole, but never trust a half-read hash with a null price
+                if (price != null) {
+                    BigDecimal unitPrice = new BigDecimal(price.toString());
+                    items.add(new StoredCartItem(null, Long.valueOf(productId), quantity,
+                            unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity))));
+                }
+            }
+        });
+
+        // hash fields have no order; product id keeps the listing stable between reads
+        items.sort(Comparator.comparing(StoredCartItem::productId));
+
+        return Optional.of(new StoredCart(null, userId, items));
+    }
+
+    @Override
+    public void updateQuantity(Long userId, Long productId, int quantity) {
+
+        Long result = redisTemplate.execute(SET_QUANTITY, keys(userId),
+                productId.toString(), String.valueOf(quantity), String.valueOf(ttl.toMillis()), track(), userId.toString());
+
+        checkFound(result, userId, productId);
+    }
+
+    @Override
+    public void removeItem(Long userId, Long productId) {
+        updateQuantity(userId, productId, 0);
+    }
+
+    @Override
+    public void clear(Long userId) {
+
+        Long result = redisTemplate.execute(CLEAR, keys(userId),
+                String.valueOf(ttl.toMillis()), track(), userId.toString());
+
+        checkFound(result, userId, null);
+    }
+
+    @Override
+    public void removeOrdered(Long userId, Long orderId, Map<Long, Integer> quantities) {
+
+        List<String> args = new ArrayList<>(List.of(
+                orderId.toString(), String.valueOf(ttl.toMillis()), track(), userId.toString()));
+
+        quantities.forEach((productId, quantity) -> {
+            args.add(productId.toString());
+            args.add(quantity.toString());
+        });
+
+        Long result = redisTemplate.execute(REMOVE_ORDERED, keys(userId), args.toArray());
+
+        checkFound(result, userId, null);
+    }
+
+    // Claims up to count users whose carts changed since they were last persisted. A change made
+    // while a claim is open marks the user dirty again, so it is picked up by a later run.
+    List<Long> claimDirty(long count) {
+
+        List<?> userIds = redisTemplate.execute(CLAIM_DIRTY, dirtyKeys(),
+                String.valueOf(count), String.valueOf(System.currentTimeMillis()));
+
+        return userIds == null ? List.of() : userIds.stream().map(userId -> Long.valueOf(userId.toString())).toList();
+    }
+
+    // The claimed cart is persisted
+    void acknowledge(Long userId) {
+        redisTemplate.opsForZSet().remove(CLAIMED_KEY, userId.toString());
+    }
+
+    void release(List<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            redisTemplate.execute(RELEASE_CLAIMED, dirtyKeys(), userIds.stream().map(String::valueOf).toArray());
+        }
+    }
+
+    // Requeues claims left open longer than timeout, i.e. by an instance that stopped mid-run
+    long releaseExpiredClaims(Duration timeout, long count) {
+
+        Long released = redisTemplate.execute(RELEASE_EXPIRED_CLAIMS, dirtyKeys(),
+                String.valueOf(System.currentTimeMillis() - timeout.toMillis()), String.valueOf(count));
+
+        return released == null ? 0 : released;
+    }
+
+    private void checkFound(Long result, Long userId, Long productId) {
+
+        if (result != null && result == CART_NOT_FOUND) {
+            throw new ResourceNotFoundException("Cart not found for userId: " + userId);
+        }
+
+        if (result != null && result == ITEM_NOT_FOUND) {
+            throw new ResourceNotFoundException("Cart item not found for productId: " + productId);
+        }
+    }
+
+    private String track() {
+        return persistenceEnabled ? "1" : "0";
+    }
+
+    private List<String> keys(Long userId) {
+        return List.of(key(userId), DIRTY_KEY);
+    }
+
+    private List<String> dirtyKeys() {
+        return List.of(DIRTY_KEY, CLAIMED_KEY);
+    }
+
+    private String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
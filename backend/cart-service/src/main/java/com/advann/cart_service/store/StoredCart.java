@@ -0,0 +1,7 @@
+package com.advann.cart_service.store;
+
+import java.util.List;
+
+// cartId is the database id, null for carts held in Redis
+public record StoredCart(Long cartId, Long userId, List<StoredCartItem> items) {
+}
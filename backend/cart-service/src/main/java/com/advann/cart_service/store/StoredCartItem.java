@@ -0,0 +1,7 @@
+package com.advann.cart_service.store;
+
+import java.math.BigDecimal;
+
+// id is the database id, null for carts held in Redis; price is the one at add time
+public record StoredCartItem(Long id, Long productId, int quantity, BigDecimal price, BigDecimal totalPrice) {
+}
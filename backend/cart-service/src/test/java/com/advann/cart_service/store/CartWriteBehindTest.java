@@ -0,0 +1,100 @@
+package com.advann.cart_service.store;
+
+import com.advann.cart_service.entity.Cart;
+import com.advann.cart_service.repository.CartItemRepository;
+import com.advann.cart_service.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CartWriteBehindTest {
+
+    @Mock
+    private RedisCartStore redisCartStore;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CartWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+
+        writeBehind = new CartWriteBehind(redisCartStore, cartRepository, cartItemRepository, transactionManager);
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 10);
+        ReflectionTestUtils.setField(writeBehind, "claimTimeout", Duration.ofMinutes(5));
+
+        when(redisCartStore.claimDirty(anyLong())).thenReturn(List.of(1L, 2L, 3L));
+        when(redisCartStore.findByUserId(any())).thenAnswer(invocation -> Optional.of(new StoredCart(
+                null, invocation.getArgument(0), List.of(new StoredCartItem(null, 5L, 1, BigDecimal.TEN, BigDecimal.TEN)))));
+        when(cartRepository.findByUserId(any())).thenAnswer(invocation ->
+                Optional.of(Cart.builder().id(invocation.getArgument(0)).userId(invocation.getArgument(0)).build()));
+    }
+
+    @Test
+    void eachCartIsAcknowledgedAfterItIsPersisted() {
+
+        writeBehind.flush();
+
+        var order = inOrder(redisCartStore, cartItemRepository);
+        order.verify(redisCartStore).releaseExpiredClaims(Duration.ofMinutes(5), 10);
+        for (long userId = 1; userId <= 3; userId++) {
+            order.verify(cartItemRepository).deleteByCartId(userId);
+            order.verify(redisCartStore).acknowledge(userId);
+        }
+        verify(redisCartStore, never()).release(any());
+    }
+
+    @Test
+    void failedCartAndTheRestOfTheBatchAreReleased() {
+
+        doThrow(new IllegalStateException("db down")).when(cartItemRepository).deleteByCartId(2L);
+
+        writeBehind.flush();
+
+        verify(redisCartStore).acknowledge(1L);
+        verify(redisCartStore, never()).acknowledge(2L);
+        verify(redisCartStore, never()).acknowledge(3L);
+        verify(redisCartStore).release(List.of(2L, 3L));
+    }
+
+    @Test
+    void failedAcknowledgementDoesNotStopTheBatch() {
+
+        doThrow(new IllegalStateException("redis down")).when(redisCartStore).acknowledge(1L);
+
+        writeBehind.flush();
+
+        verify(cartItemRepository).deleteByCartId(3L);
+        verify(redisCartStore).acknowledge(3L);
+        verify(redisCartStore, never()).release(any());
+    }
+}
@@ -0,0 +1,190 @@
+package com.advann.cart_service.store;
+
+import com.advann.cart_service.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the cart scripts against a real Redis
+@Testcontainers(disabledWithoutDocker = true)
+class RedisCartStoreTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisCartStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        store = new RedisCartStore(redisTemplate);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofDays(30));
+        ReflectionTestUtils.setField(store, "persistenceEnabled", true);
+    }
+
+    @Test
+    void addingTheSameProductAddsUpItsQuantity() {
+
+        store.addItem(USER_ID, 2L, 1, new BigDecimal("9.50"));
+        store.addItem(USER_ID, 2L, 2, new BigDecimal("9.00"));
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+
+        StoredCart cart = store.findByUserId(USER_ID).orElseThrow();
+
+        assertEquals(List.of(1L, 2L), cart.items().stream().map(StoredCartItem::productId).toList());
+        StoredCartItem line = cart.items().get(1);
+        assertEquals(3, line.quantity());
+        // the latest price wins
+        assertEquals(new BigDecimal("9.00"), line.price());
+        assertEquals(new BigDecimal("27.00"), line.totalPrice());
+    }
+
+    @Test
+    void settingQuantityToZeroRemovesTheLine() {
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        store.addItem(USER_ID, 2L, 1, BigDecimal.TEN);
+
+        store.updateQuantity(USER_ID, 1L, 4);
+        store.updateQuantity(USER_ID, 2L, 0);
+
+        List<StoredCartItem> items = store.findByUserId(USER_ID).orElseThrow().items();
+        assertEquals(1, items.size());
+        assertEquals(4, items.get(0).quantity());
+    }
+
+    @Test
+    void settingQuantityOfAMissingCartOrLineIsNotFound() {
+
+        assertThrows(ResourceNotFoundException.class, () -> store.updateQuantity(USER_ID, 1L, 1));
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+
+        assertThrows(ResourceNotFoundException.class, () -> store.updateQuantity(USER_ID, 2L, 1));
+    }
+
+    @Test
+    void clearingKeepsAnEmptyCart() {
+
+        assertThrows(ResourceNotFoundException.class, () -> store.clear(USER_ID));
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        store.clear(USER_ID);
+
+        assertTrue(store.findByUserId(USER_ID).orElseThrow().items().isEmpty());
+    }
+
+    @Test
+    void orderedLinesAreTakenOutOncePerOrder() {
+
+        store.addItem(USER_ID, 1L, 3, BigDecimal.TEN);
+        store.addItem(USER_ID, 2L, 1, BigDecimal.TEN);
+        store.addItem(USER_ID, 3L, 1, BigDecimal.TEN);
+
+        store.removeOrdered(USER_ID, 100L, Map.of(1L, 2, 2L, 1));
+        // redelivered, and an older order arriving late: both change nothing
+        store.removeOrdered(USER_ID, 100L, Map.of(1L, 2, 2L, 1));
+        store.removeOrdered(USER_ID, 99L, Map.of(3L, 1));
+
+        List<StoredCartItem> items = store.findByUserId(USER_ID).orElseThrow().items();
+        assertEquals(List.of(1L, 3L), items.stream().map(StoredCartItem::productId).toList());
+        assertEquals(1, items.get(0).quantity());
+    }
+
+    @Test
+    void clearingKeepsTheLastAppliedOrder() {
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        store.removeOrdered(USER_ID, 100L, Map.of(1L, 1));
+        store.clear(USER_ID);
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+
+        store.removeOrdered(USER_ID, 100L, Map.of(1L, 1));
+
+        assertEquals(1, store.findByUserId(USER_ID).orElseThrow().items().size());
+    }
+
+    @Test
+    void removingOrderedLinesFromAMissingCartIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> store.removeOrdered(USER_ID, 100L, Map.of(1L, 1)));
+    }
+
+    @Test
+    void claimedCartLeavesTheQueueOnlyWhenAcknowledged() {
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+
+        assertEquals(List.of(USER_ID), store.claimDirty(10));
+        assertEquals(List.of(), store.claimDirty(10));
+
+        // a claim never acknowledged, e.g. by an instance that died, comes back after the timeout
+        assertEquals(1, store.releaseExpiredClaims(Duration.ZERO, 10));
+        assertEquals(List.of(USER_ID), store.claimDirty(10));
+
+        store.acknowledge(USER_ID);
+
+        assertEquals(0, store.releaseExpiredClaims(Duration.ZERO, 10));
+        assertEquals(List.of(), store.claimDirty(10));
+    }
+
+    @Test
+    void releasedClaimIsQueuedAgain() {
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        List<Long> claimed = store.claimDirty(10);
+
+        store.release(claimed);
+
+        assertEquals(0, store.releaseExpiredClaims(Duration.ZERO, 10));
+        assertEquals(List.of(USER_ID), store.claimDirty(10));
+    }
+
+    @Test
+    void changeWhileClaimedIsPersistedAgain() {
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        store.claimDirty(10);
+
+        store.addItem(USER_ID, 1L, 1, BigDecimal.TEN);
+        store.acknowledge(USER_ID);
+
+        assertEquals(List.of(USER_ID), store.claimDirty(10));
+    }
+}
@@ -0,0 +1,280 @@
+package com.advann.order_service.archive;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves closed orders out of the tables checkout works on.
+ * <p>
+ * DELIVERED and CANCELLED orders untouched for {@code closed-for} are moved, in batches, with
+ * their items and summaries into {@code orders_archive}, {@code order_items_archive} and
+ * {@code order_summaries_archive}, each range-partitioned by month of placement. So the live
+ * tables, their indexes and their vacuum work only grow with the orders still in play, and old
+ * months can be detached or dropped as a whole. Reads see both sides through
+ * {@code OrderSummaryView}.
+ * <p>
+ * {@code ddl-auto: update} cannot create partitioned tables, so they are created here, at
+ * startup: order reads go through them, so an instance that cannot create them does not start.
+ * Schema and partition changes run under one advisory lock, so instances starting or archiving
+ * together do not race on the same DDL. Partitions are created ahead of a run, for every month
+ * it may move, in their own short transaction. Each batch is then one transaction: rows are
+ * locked with SKIP LOCKED, so every instance can run the archiver, and a batch is either fully
+ * moved or not at all. Orders whose placement saga is still running, or that have no summary
+ * yet, wait for a later run.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final List<String> ARCHIVE_TABLES =
+            List.of("orders_archive", "order_items_archive", "order_summaries_archive");
+
+    private static final List<String> SCHEMA = List.of(
+            """
+            CREATE TABLE IF NOT EXISTS orders_archive (
+                id bigint NOT NULL,
+                user_id bigint NOT NULL,
+                order_status varchar(255) NOT NULL,
+                payment_status varchar(255) NOT NULL,
+                total_amount numeric(38,2) NOT NULL,
+                created_at timestamp(6) NOT NULL,
+                updated_at timestamp(6) NOT NULL,
+                version bigint,
+                archived_at timestamp(6) NOT NULL,
+                PRIMARY KEY (id, created_at)
+            ) PARTITION BY RANGE (created_at)
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS order_items_archive (
+                id bigint NOT NULL,
+                order_id bigint NOT NULL,
+                order_created_at timestamp(6) NOT NULL,
+                product_id bigint NOT NULL,
+                product_name varchar(255),
+                product_image varchar(255),
+                quantity integer NOT NULL,
+                price numeric(38,2) NOT NULL,
+                total_price numeric(38,2) NOT NULL,
+                created_at timestamp(6) NOT NULL,
+                updated_at timestamp(6) NOT NULL,
+                PRIMARY KEY (id, order_created_at)
+            ) PARTITION BY RANGE (order_created_at)
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_order_items_archive_order_id ON order_items_archive (order_id)",
+            // same columns and types as order_summaries, so the UNION ALL behind OrderSummaryView flattens
+            """
+            CREATE TABLE IF NOT EXISTS order_summaries_archive (
+                order_id bigint NOT NULL,
+                user_id bigint NOT NULL,
+                order_status varchar(255) NOT NULL,
+                payment_status varchar(255) NOT NULL,
+                total_amount numeric(38,2) NOT NULL,
+                item_count integer NOT NULL,
+                items text NOT NULL,
+                created_at timestamp(6) NOT NULL,
+                updated_at timestamp(6) NOT NULL,
+                PRIMARY KEY (order_id, created_at)
+            ) PARTITION BY RANGE (created_at)
+            """,
+            // the indexes order reads, admin search and export seek on, as on order_summaries
+            """
+            CREATE INDEX IF NOT EXISTS idx_order_summaries_archive_user_created_order
+                ON order_summaries_archive (user_id, created_at, order_id)
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_order_summaries_archive_status_created_order
+                ON order_summaries_archive (order_status, created_at, order_id)
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_order_summaries_archive_payment_created_order
+                ON order_summaries_archive (payment_status, created_at, order_id)
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_order_summaries_archive_created_order
+                ON order_summaries_archive (created_at, order_id)
+            """);
+
+    // held by schema and partition DDL until their transaction ends
+    private static final String LOCK_SCHEMA = "SELECT pg_advisory_xact_lock(hashtext('order_archive_schema'))";
+
+    private static final String ARCHIVABLE_MONTHS = """
+            SELECT DISTINCT date_trunc('month', o.created_at) AS month FROM orders o
+            WHERE o.order_status IN ('DELIVERED', 'CANCELLED')
+              AND o.updated_at < :cutoff
+            """;
+
+    private static final String LOCK_BATCH = """
+            SELECT o.id, o.created_at FROM orders o
+            WHERE o.order_status IN ('DELIVERED', 'CANCELLED')
+              AND o.updated_at < :cutoff
+              AND EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.id)
+              AND NOT EXISTS (SELECT 1 FROM order_sagas g
+                              WHERE g.order_id = o.id AND g.step NOT IN ('COMPLETED', 'COMPENSATED'))
+            ORDER BY o.updated_at
+            LIMIT :batchSize
+            FOR UPDATE OF o SKIP LOCKED
+            """;
+
+    private static final String ARCHIVE_ORDERS = """
+            INSERT INTO orders_archive
+                (id, user_id, order_status, payment_status, total_amount, created_at, updated_at, version, archived_at)
+            SELECT id, user_id, order_status, payment_status, total_amount, created_at, updated_at, version, :archivedAt
+            FROM orders WHERE id IN (:ids)
+            """;
+
+    private static final String ARCHIVE_ITEMS = """
+            INSERT INTO order_items_archive
+                (id, order_id, order_created_at, product_id, product_name, product_image,
+                 quantity, price, total_price, created_at, updated_at)
+            SELECT i.id, i.order_id, o.created_at, i.product_id, i.product_name, i.product_image,
+                   i.quantity, i.price, i.total_price, i.created_at, i.updated_at
+            FROM order_items i JOIN orders o ON o.id = i.order_id
+            WHERE i.order_id IN (:ids)
+            """;
+
+    private static final String ARCHIVE_SUMMARIES = """
+            INSERT INTO order_summaries_archive
+                (order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at)
+            SELECT order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at
+            FROM order_summaries WHERE order_id IN (:ids)
+            """;
+
+    // children first, orders last (order_items references orders)
+    private static final List<String> DELETE_LIVE = List.of(
+            "DELETE FROM order_items WHERE order_id IN (:ids)",
+            "DELETE FROM order_summaries WHERE order_id IN (:ids)",
+            "DELETE FROM order_sagas WHERE order_id IN (:ids)",
+            "DELETE FROM orders WHERE id IN (:ids)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.order.archive.closed-for:90d}")
+    private Duration closedFor;
+
+    @Value("${app.order.archive.batch-size:500}")
+    private int batchSize;
+
+    public OrderArchiver(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Before the web server starts: order reads already go through the archive tables, so a failure fails startup
+    @PostConstruct
+    public void createSchema() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.getJdbcTemplate().execute(LOCK_SCHEMA);
+            SCHEMA.forEach(statement -> jdbcTemplate.getJdbcTemplate().execute(statement));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.archive.interval-ms:3600000}")
+    public void archive() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(closedFor);
+
+            // the cutoff is fixed for the run, so no batch can need a month not created here
+            createPartitions(cutoff);
+
+            int archived = 0;
+            Integer moved;
+
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                archived += moved != null ? moved : 0;
+            } while (moved != null && moved == batchSize);
+
+            if (archived > 0) {
+                log.info("Archived {} closed orders", archived);
+            }
+        } catch (Exception e) {
+            // the failed batch rolled back whole, the next run picks it up again
+            log.warn("Order archiving failed: {}", e.getMessage());
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+
+        List<Map<String, Object>> batch = jdbcTemplate.queryForList(
+                LOCK_BATCH, Map.of("cutoff", cutoff, "batchSize", batchSize));
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> params = Map.of(
+                "ids", batch.stream().map(row -> ((Number) row.get("id")).longValue()).toList(),
+                "archivedAt", LocalDateTime.now());
+
+        jdbcTemplate.update(ARCHIVE_ORDERS, params);
+        jdbcTemplate.update(ARCHIVE_ITEMS, params);
+        jdbcTemplate.update(ARCHIVE_SUMMARIES, params);
+        DELETE_LIVE.forEach(statement -> jdbcTemplate.update(statement, params));
+
+        return batch.size();
+    }
+
+    // Outside the batches, so their row locks are never held while waiting on DDL
+    private void createPartitions(LocalDateTime cutoff) {
+
+        List<YearMonth> months = jdbcTemplate.queryForList(ARCHIVABLE_MONTHS, Map.of("cutoff", cutoff), Timestamp.class)
+                .stream()
+                .map(month -> YearMonth.from(month.toLocalDateTime()))
+                .toList();
+
+        if (months.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            jdbcTemplate.getJdbcTemplate().execute(LOCK_SCHEMA);
+
+            for (YearMonth month : months) {
+
+                String from = month.atDay(1).atStartOfDay().toString();
+                String to = month.plusMonths(1).atDay(1).atStartOfDay().toString();
+
+                for (String table : ARCHIVE_TABLES) {
+
+                    String partition = table + "_" + month.format(PARTITION_SUFFIX);
+
+                    Boolean exists = jdbcTemplate.getJdbcTemplate().queryForObject(
+                            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+
+                    if (!Boolean.TRUE.equals(exists)) {
+                        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + partition
+                                + " PARTITION OF " + table + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                    }
+                }
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.advann.order_service.client;
 
 import com.advann.order_service.dto.CartResponseDto;
+import com.advann.order_service.dto.OrderedItemsRequestDto;
 import com.advann.order_service.payload.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ public interface CartClient {
     @GetMapping("/api/cart/{userId}")
     ApiResponse<CartResponseDto> getCartByUserId(@PathVariable("userId") Long userId);
 
-    @DeleteMapping("/api/cart/clear/{userId}")
-    ApiResponse<Object> clearCart(@PathVariable("userId") Long userId);
+    @PostMapping("/api/cart/{userId}/remove-ordered")
+    ApiResponse<Object> removeOrderedItems(@PathVariable("userId") Long userId,
+                                           @RequestBody OrderedItemsRequestDto request);
 }
\ No newline at end of file
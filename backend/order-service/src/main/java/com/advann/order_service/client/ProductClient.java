@@ -1,31 +1,36 @@
 package com.advann.order_service.client;
 
 import com.advann.order_service.dto.ProductResponseDto;
+import com.advann.order_service.dto.ProductSummaryDto;
+import com.advann.order_service.dto.StockBatchRequestDto;
+import com.advann.order_service.dto.StockBatchResultDto;
 import com.advann.order_service.payload.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "product-service")
 public interface ProductClient {
 
     @GetMapping("/api/products/{id}")
     ApiResponse<ProductResponseDto> getProductById(@PathVariable Long id);
 
-    @PostMapping("/internal/products/{productId}/reserve")
-    ApiResponse<Void> reserveStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
-    );
+    // Unknown ids are left out of the returned map
+    @PostMapping("/internal/products/batch")
+    ApiResponse<Map<Long, ProductSummaryDto>> getProductsByIds(@RequestBody List<Long> ids);
 
-    @PostMapping("/internal/products/{productId}/confirm")
-    ApiResponse<Void> confirmStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
+    // Order-keyed, all-or-nothing and idempotent: safe to retry; a rejected call answers 409 and changes nothing
+    @PostMapping("/internal/products/reservations/{orderId}")
+    ApiResponse<StockBatchResultDto> reserveStockForOrder(
+            @PathVariable Long orderId,
+            @RequestBody StockBatchRequestDto request
     );
 
-    @PostMapping("/internal/products/{productId}/release")
-    ApiResponse<Void> releaseStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
-    );
-}
\ No newline at end of file
+    @PostMapping("/internal/products/reservations/{orderId}/confirm")
+    ApiResponse<StockBatchResultDto> confirmReservation(@PathVariable Long orderId);
+
+    @PostMapping("/internal/products/reservations/{orderId}/release")
+    ApiResponse<StockBatchResultDto> releaseReservation(@PathVariable Long orderId);
+}
@@ -0,0 +1,27 @@
+package com.advann.order_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Runs the order placement saga steps (remote calls to product-service and cart-service).
+    // A fixed pool keeps a slow downstream service from piling up threads; a full queue rejects
+    // instead of blocking, so neither a placing request nor the sweeper's scheduler thread waits on it.
+    @Bean
+    public Executor sagaExecutor(@Value("${app.order.saga.concurrency:64}") int concurrency,
+                                 @Value("${app.order.saga.queue-capacity:1000}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("order-saga-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
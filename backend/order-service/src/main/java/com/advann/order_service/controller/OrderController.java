@@ -1,14 +1,24 @@
 package com.advann.order_service.controller;
 
 import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.dto.OrderSearchCriteria;
+import com.advann.order_service.dto.PagedResponseDto;
 import com.advann.order_service.dto.PaymentStatusUpdateRequestDto;
+import com.advann.order_service.enums.ExportFormat;
 import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.export.OrderExporter;
 import com.advann.order_service.payload.ApiResponse;
 import com.advann.order_service.service.services.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,11 +28,20 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExporter orderExporter;
 
+    // Optional Idempotency-Key: retries with the same key get the first response instead of a second order
     @PostMapping("/place/{userId}")
-    public ResponseEntity<ApiResponse<OrderResponseDto>> placeOrder(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<OrderResponseDto>> placeOrder(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to 255 characters");
+        }
 
-        OrderResponseDto order = orderService.placeOrder(userId);
+        OrderResponseDto order = orderService.placeOrder(userId, idempotencyKey);
 
         return ResponseEntity.ok(
                 ApiResponse.<OrderResponseDto>builder()
@@ -61,6 +80,73 @@ public class OrderController {
         );
     }
 
+    // Keyset-paginated history, newest first: pass the returned nextCursor to get the next page
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<ApiResponse<PagedResponseDto<OrderResponseDto>>> getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+
+        PagedResponseDto<OrderResponseDto> orders = orderService.getOrderHistory(userId, cursor, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.<PagedResponseDto<OrderResponseDto>>builder()
+                        .success(true)
+                        .message("Orders fetched successfully")
+                        .data(orders)
+                        .build()
+        );
+    }
+
+    // Admin search over all orders, newest first, keyset-paginated like the history; every filter is optional
+    @GetMapping("/admin/search")
+    public ResponseEntity<ApiResponse<PagedResponseDto<OrderResponseDto>>> searchOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+
+        PagedResponseDto<OrderResponseDto> orders = orderService.searchOrders(
+                criteria(userId, orderStatus, paymentStatus, from, to), cursor, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.<PagedResponseDto<OrderResponseDto>>builder()
+                        .success(true)
+                        .message("Orders fetched successfully")
+                        .data(orders)
+                        .build()
+        );
+    }
+
+    // Streams every matching order, oldest first, as CSV or NDJSON; not wrapped in ApiResponse
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") ExportFormat format
+    ) {
+
+        StreamingResponseBody body = orderExporter.export(criteria(userId, orderStatus, paymentStatus, from, to), format);
+
+        String fileName = format == ExportFormat.CSV ? "orders.csv" : "orders.ndjson";
+        MediaType contentType = format == ExportFormat.CSV
+                ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON;
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
     @PutMapping("/cancel/{orderId}")
     public ResponseEntity<ApiResponse<OrderResponseDto>> cancelOrder(@PathVariable Long orderId) {
 
@@ -99,4 +185,15 @@ public class OrderController {
 
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, newStatus));
     }
-}
\ No newline at end of file
+
+    private OrderSearchCriteria criteria(Long userId, OrderStatus orderStatus, PaymentStatus paymentStatus,
+                                         LocalDateTime from, LocalDateTime to) {
+        return OrderSearchCriteria.builder()
+                .userId(userId)
+                .orderStatus(orderStatus)
+                .paymentStatus(paymentStatus)
+                .from(from)
+                .to(to)
+                .build();
+    }
+}
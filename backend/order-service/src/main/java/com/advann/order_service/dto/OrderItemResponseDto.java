@@ -12,6 +12,7 @@ public class OrderItemResponseDto {
 
     private Long productId;
     private String productName;
+    private String productImage;
     private Integer quantity;
     private BigDecimal price;
     private BigDecimal totalPrice;
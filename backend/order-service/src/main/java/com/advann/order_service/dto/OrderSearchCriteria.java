@@ -0,0 +1,21 @@
+package com.advann.order_service.dto;
+
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Admin order filters; null fields are not filtered on. The date range is [from, to) on placement time.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchCriteria {
+
+    private Long userId;
+    private OrderStatus orderStatus;
+    private PaymentStatus paymentStatus;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
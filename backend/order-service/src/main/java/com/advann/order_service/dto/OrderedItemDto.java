@@ -0,0 +1,17 @@
+package com.advann.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderedItemDto {
+
+    private Long productId;
+
+    private Integer quantity;
+}
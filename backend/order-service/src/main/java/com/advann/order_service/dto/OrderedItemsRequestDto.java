@@ -0,0 +1,20 @@
+package com.advann.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// An order's lines for cart-service to take out of the cart, once per order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderedItemsRequestDto {
+
+    private Long orderId;
+
+    private List<OrderedItemDto> items;
+}
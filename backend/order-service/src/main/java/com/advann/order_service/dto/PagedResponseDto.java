@@ -0,0 +1,19 @@
+package com.advann.order_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PagedResponseDto<T> {
+
+    private List<T> content;
+    private int pageSize;
+    private boolean last;
+
+    // opaque position of the next page, null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.advann.order_service.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// Compact product view returned by product-service's batch lookup
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSummaryDto {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String imageUrl;
+}
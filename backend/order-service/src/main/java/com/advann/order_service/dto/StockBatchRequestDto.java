@@ -0,0 +1,18 @@
+package com.advann.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// All line items of one order; product-service applies them all-or-nothing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchRequestDto {
+
+    private List<StockLineDto> items;
+}
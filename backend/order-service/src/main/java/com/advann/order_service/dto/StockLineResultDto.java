@@ -0,0 +1,18 @@
+package com.advann.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLineResultDto {
+
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private String message;
+}
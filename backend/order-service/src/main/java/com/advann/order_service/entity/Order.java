@@ -11,7 +11,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(
+        name = "orders",
+        indexes = {
+                // order history: keyset seek per user, newest first
+                @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at, id"),
+                // archiver: closed orders by how long they have been closed
+                @Index(name = "idx_orders_status_updated", columnList = "order_status, updated_at")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
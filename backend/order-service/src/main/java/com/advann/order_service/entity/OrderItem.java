@@ -7,7 +7,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(
+        name = "order_items",
+        indexes = {
+                // Postgres does not index foreign keys; every order read looks items up by order
+                @Index(name = "idx_order_items_order_id", columnList = "order_id")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +32,11 @@ public class OrderItem {
     @Column(nullable = false)
     private Long productId;
 
+    // Snapshot taken when the order is placed, so order reads never call product-service
+    private String productName;
+
+    private String productImage;
+
     @Column(nullable = false)
     private Integer quantity;
 
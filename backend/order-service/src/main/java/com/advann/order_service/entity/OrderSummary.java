@@ -0,0 +1,59 @@
+package com.advann.order_service.entity;
+
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model: one denormalized row per live order, written with every order change; read through OrderSummaryView
+@Entity
+@Table(
+        name = "order_summaries",
+        indexes = {
+                @Index(name = "idx_order_summaries_user_created_order", columnList = "user_id, created_at, order_id"),
+                // admin search and export: filter column first, then the keyset sort
+                @Index(name = "idx_order_summaries_status_created_order", columnList = "order_status, created_at, order_id"),
+                @Index(name = "idx_order_summaries_payment_created_order", columnList = "payment_status, created_at, order_id"),
+                @Index(name = "idx_order_summaries_created_order", columnList = "created_at, order_id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    @Id
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus paymentStatus;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    // List<OrderItemResponseDto> as JSON; order lines never change after placement
+    @Column(nullable = false, columnDefinition = "text")
+    private String items;
+
+    // placement time of the order
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,53 @@
+package com.advann.order_service.entity;
+
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read side of the read model: live and archived order summaries as one. Postgres flattens the UNION ALL,
+// so filters and keyset seeks run on each table's own indexes and the two index scans are merged.
+@Entity
+@Immutable
+@Subselect("""
+        SELECT order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at
+        FROM order_summaries
+        UNION ALL
+        SELECT order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at
+        FROM order_summaries_archive
+        """)
+@Synchronize({"order_summaries", "order_summaries_archive"})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryView {
+
+    @Id
+    private Long orderId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private BigDecimal totalAmount;
+
+    private int itemCount;
+
+    // List<OrderItemResponseDto> as JSON
+    private String items;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.advann.order_service.entity;
+
+import com.advann.order_service.enums.EventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// An order status change still to be announced on order-events; written in the same transaction as the change
+@Entity
+@Table(
+        name = "order_outbox",
+        indexes = {
+                @Index(name = "idx_order_outbox_unpublished", columnList = "published_at, id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.advann.order_service.enums;
+
+// Events published on the order stream; the aggregate id of each is the order id
+public enum EventType {
+    ORDER_CONFIRMED,
+    ORDER_CANCELLED,
+    ORDER_REFUND_REQUIRED   // payment captured for an order already cancelled; the money has to go back
+}
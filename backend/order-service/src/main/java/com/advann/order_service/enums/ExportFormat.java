@@ -0,0 +1,6 @@
+package com.advann.order_service.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
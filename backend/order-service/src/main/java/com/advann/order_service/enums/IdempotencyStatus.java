@@ -0,0 +1,6 @@
+package com.advann.order_service.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,    // first request with the key still running
+    COMPLETED       // response stored, repeats are answered from it
+}
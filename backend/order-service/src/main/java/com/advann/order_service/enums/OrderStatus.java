@@ -1,6 +1,7 @@
 package com.advann.order_service.enums;
 
 public enum OrderStatus {
+    PENDING,        // being placed, stock not reserved yet
     CREATED,        // order placed, payment pending
     CONFIRMED,      // payment success
     SHIPPED,
@@ -0,0 +1,14 @@
+package com.advann.order_service.enums;
+
+// Next step of an order placement saga; the last two are terminal
+public enum SagaStep {
+    RESERVE_STOCK,  // order recorded, stock not reserved yet
+    CLEAR_CART,     // stock reserved, ordered lines still to be taken out of the cart
+    RELEASE_STOCK,  // compensating: give back whatever the order holds, then cancel it
+    COMPLETED,
+    COMPENSATED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == COMPENSATED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.advann.order_service.events;
+
+import com.advann.order_service.entity.OutboxEvent;
+import com.advann.order_service.enums.EventType;
+import com.advann.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Records order events for OutboxRelay; called from the order status transitions in OrderServiceImpl
+@Component
+@RequiredArgsConstructor
+public class OutboxEvents {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    // MANDATORY: an event is only ever recorded together with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(EventType eventType, Long aggregateId) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .build());
+    }
+}
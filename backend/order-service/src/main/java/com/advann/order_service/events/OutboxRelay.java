@@ -0,0 +1,111 @@
+package com.advann.order_service.events;
+
+import com.advann.order_service.entity.OutboxEvent;
+import com.advann.order_service.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes committed {@code order_outbox} rows to the {@code order-events} stream in id order,
+ * so product-service sees an order confirmed or cancelled in the order it happened.
+ * <p>
+ * A batch is locked, appended to the stream and marked published in one transaction. If the
+ * process dies between the append and the commit the batch is published again; product-service
+ * settles each reservation through its ledger, so a replayed event settles nothing twice.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.events.stream:order-events}")
+    private String stream;
+
+    @Value("${app.events.relay-batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.events.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.events.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       StringRedisTemplate redisTemplate,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.relay-interval-ms:200}")
+    public void relay() {
+
+        try {
+            Integer published;
+
+            // a full batch means there may be more behind it
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+
+        } catch (Exception e) {
+            // rows stay unpublished, the next run retries them
+            log.warn("Order outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+
+            // approximate trimming keeps the stream bounded without blocking Redis
+            redisTemplate.opsForStream().trim(stream, streamMaxLength, true);
+
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} published order outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Order outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+
+        List<OutboxEvent> events = outboxEventRepository.lockUnpublished(batchSize);
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        for (OutboxEvent event : events) {
+            redisTemplate.opsForStream().add(stream, Map.of(
+                    "eventId", String.valueOf(event.getId()),
+                    "type", event.getEventType().name(),
+                    "aggregateId", String.valueOf(event.getAggregateId()),
+                    "occurredAt", event.getCreatedAt().toString()));
+        }
+
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+
+        return events.size();
+    }
+}
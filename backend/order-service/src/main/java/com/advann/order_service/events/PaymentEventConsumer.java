@@ -0,0 +1,177 @@
+package com.advann.order_service.events;
+
+import com.advann.order_service.dto.PaymentStatusUpdateRequestDto;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.exception.ResourceNotFoundException;
+import com.advann.order_service.service.services.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies payment-service's PAYMENT_PAID / PAYMENT_FAILED events to orders through
+ * {@link OrderService#updatePaymentStatus}, which confirms a paid order, or requests a refund
+ * when the order was cancelled before its payment arrived.
+ * <p>
+ * Each event is handled by one instance of the {@code order-service} group and acknowledged
+ * once the order change has committed. An event for an unknown order, or one the order can no
+ * longer take, is dropped; one for an order the saga is still placing is retried. A failed event stays pending and is reclaimed after
+ * {@code redelivery-after}, up to {@code max-deliveries} times. A replay finds the payment status
+ * already set and changes nothing.
+ */
+@Component
+public class PaymentEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventConsumer.class);
+
+    private static final String GROUP = "order-service";
+
+    private final OrderService orderService;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.events.payment-stream:payment-events}")
+    private String stream;
+
+    @Value("${app.events.consumer-name:${HOSTNAME:order-service}}")
+    private String consumerName;
+
+    @Value("${app.events.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.events.redelivery-after:30s}")
+    private Duration redeliveryAfter;
+
+    @Value("${app.events.max-deliveries:10}")
+    private int maxDeliveries;
+
+    private volatile boolean groupReady;
+
+    public PaymentEventConsumer(OrderService orderService, StringRedisTemplate redisTemplate) {
+        this.orderService = orderService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval-ms:200}")
+    public void poll() {
+
+        try {
+            ensureGroup();
+
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(stream, ReadOffset.lastConsumed()));
+
+            if (records != null) {
+                records.forEach(this::handle);
+            }
+
+            redeliverStale();
+
+        } catch (Exception e) {
+            // the group may be gone with a flushed Redis; recreate it on the next run
+            groupReady = false;
+            log.warn("Payment event poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void handle(MapRecord<String, Object, Object> record) {
+
+        Map<Object, Object> event = record.getValue();
+
+        try {
+            Long orderId = Long.valueOf(String.valueOf(event.get("aggregateId")));
+            String type = String.valueOf(event.get("type"));
+
+            switch (type) {
+                case "PAYMENT_PAID" -> applyPayment(orderId, PaymentStatus.PAID);
+                case "PAYMENT_FAILED" -> applyPayment(orderId, PaymentStatus.FAILED);
+                default -> log.debug("Ignoring payment event {} of type {}", record.getId(), type);
+            }
+
+            acknowledge(record.getId());
+
+        } catch (ResourceNotFoundException | IllegalStateException e) {
+            // retrying cannot help: the order is gone or already moved on
+            log.error("Dropping payment event {} {}: {}", record.getId(), event, e.getMessage());
+            acknowledge(record.getId());
+
+        } catch (Exception e) {
+            log.warn("Payment event {} failed, will be redelivered: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    private void applyPayment(Long orderId, PaymentStatus paymentStatus) {
+        orderService.updatePaymentStatus(orderId, PaymentStatusUpdateRequestDto.builder()
+                .paymentStatus(paymentStatus)
+                .build());
+    }
+
+    private void redeliverStale() {
+
+        for (PendingMessage message : redisTemplate.opsForStream().pending(stream, GROUP, Range.unbounded(), batchSize)) {
+
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(redeliveryAfter) < 0) {
+                continue;
+            }
+
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                log.error("Giving up on payment event {} after {} deliveries",
+                        message.getIdAsString(), message.getTotalDeliveryCount());
+                acknowledge(message.getId());
+                continue;
+            }
+
+            // Redis re-checks the idle time, so two instances never both take the same event
+            redisTemplate.opsForStream()
+                    .claim(stream, GROUP, consumerName, redeliveryAfter, message.getId())
+                    .forEach(this::handle);
+        }
+    }
+
+    private void acknowledge(RecordId id) {
+        redisTemplate.opsForStream().acknowledge(stream, GROUP, id);
+    }
+
+    // MKSTREAM: the group can be created before payment-service has published anything
+    private void ensureGroup() {
+
+        if (groupReady) {
+            return;
+        }
+
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> createGroup(connection));
+        } catch (DataAccessException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+
+        groupReady = true;
+    }
+
+    private String createGroup(RedisConnection connection) {
+        return connection.streamCommands().xGroupCreate(
+                stream.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true);
+    }
+}
@@ -0,0 +1,149 @@
+package com.advann.order_service.export;
+
+import com.advann.order_service.dto.OrderSearchCriteria;
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.enums.ExportFormat;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.OrderSummarySpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the orders matching an admin search to the response, oldest first.
+ * <p>
+ * Rows come off a server-side cursor {@code fetch-size} at a time (Postgres only streams inside
+ * a transaction, hence the read-only one around the whole export) and each row is detached
+ * once written, so heap use stays flat however many orders match. CSV carries one summary line
+ * per order; NDJSON carries the full order, lines included.
+ */
+@Component
+public class OrderExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExporter.class);
+
+    private static final String CSV_HEADER =
+            "orderId,userId,orderStatus,paymentStatus,totalAmount,itemCount,createdAt,updatedAt";
+
+    private final EntityManager entityManager;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.export.fetch-size:500}")
+    private int fetchSize;
+
+    public OrderExporter(EntityManager entityManager,
+                         OrderSummaryProjector orderSummaryProjector,
+                         JsonMapper jsonMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // The criteria are checked here, before the response is committed; the rows are read as it is written
+    public StreamingResponseBody export(OrderSearchCriteria criteria, ExportFormat format) {
+
+        Specification<OrderSummaryView> specification = OrderSummarySpecifications.matching(criteria);
+
+        return outputStream -> {
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            try {
+                Long exported = transactionTemplate.execute(status -> write(specification, format, writer));
+                writer.flush();
+                log.info("Exported {} orders as {}", exported, format);
+            } catch (UncheckedIOException e) {
+                // client went away mid-download; closing the stream released the cursor
+                log.warn("Order export aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+
+    private long write(Specification<OrderSummaryView> specification, ExportFormat format, Writer writer) {
+
+        long count = 0;
+
+        try (Stream<OrderSummaryView> rows = stream(specification)) {
+
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            Iterator<OrderSummaryView> iterator = rows.iterator();
+
+            while (iterator.hasNext()) {
+
+                OrderSummaryView row = iterator.next();
+
+                writer.write(format == ExportFormat.CSV ? csvLine(row) : jsonLine(row));
+                writer.write('\n');
+
+                entityManager.detach(row);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return count;
+    }
+
+    private Stream<OrderSummaryView> stream(Specification<OrderSummaryView> specification) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryView> query = cb.createQuery(OrderSummaryView.class);
+        Root<OrderSummaryView> root = query.from(OrderSummaryView.class);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("orderId")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // every column is a number, an enum name or a timestamp, so nothing needs quoting
+    private String csvLine(OrderSummaryView row) {
+        return row.getOrderId() + "," + row.getUserId() + "," + row.getOrderStatus() + "," + row.getPaymentStatus()
+                + "," + row.getTotalAmount().toPlainString() + "," + row.getItemCount()
+                + "," + row.getCreatedAt() + "," + row.getUpdatedAt();
+    }
+
+    private String jsonLine(OrderSummaryView row) {
+        return jsonMapper.writeValueAsString(orderSummaryProjector.toResponseDto(row));
+    }
+}
@@ -0,0 +1,215 @@
+package com.advann.order_service.idempotency;
+
+import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.entity.IdempotencyKey;
+import com.advann.order_service.enums.IdempotencyStatus;
+import com.advann.order_service.exception.IdempotencyKeyInUseException;
+import com.advann.order_service.exception.IdempotencyKeyMismatchException;
+import com.advann.order_service.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key handling for order placement.
+ * <p>
+ * The first request with a key records it IN_PROGRESS. The order placed for it is attached to
+ * the key in the order's own transaction, and the response is stored once placement returns.
+ * Repeats are answered from the stored response without placing anything; a repeat arriving
+ * while the first request still runs waits for it, up to {@code wait-timeout}. A key whose
+ * request died before creating an order can be taken over once it is stale.
+ */
+@Component
+public class OrderIdempotency {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotency.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.order.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    @Value("${app.order.idempotency.in-progress-timeout:2m}")
+    private Duration inProgressTimeout;
+
+    @Value("${app.order.idempotency.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    public OrderIdempotency(IdempotencyKeyRepository idempotencyKeyRepository,
+                            JsonMapper jsonMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Claims the key for a placement by this user. Returns null if the caller now owns it and
+     * should place the order, otherwise the earlier request's record to answer from.
+     */
+    public IdempotencyKey claim(String key, Long userId) {
+
+        String fingerprint = fingerprint(userId);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+
+            if (insert(key, fingerprint)) {
+                return null;
+            }
+
+            Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByIdempotencyKey(key);
+
+            if (existing.isEmpty()) {
+                // abandoned in between, try to claim it again
+                continue;
+            }
+
+            IdempotencyKey record = existing.get();
+
+            if (!record.getFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+            }
+
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                return record;
+            }
+
+            if (record.getUpdatedAt().isBefore(LocalDateTime.now().minus(inProgressTimeout))) {
+
+                // Its request died: an order it created stands, otherwise this request starts over
+                if (record.getOrderId() != null) {
+                    return record;
+                }
+
+                if (takeOver(key)) {
+                    return null;
+                }
+
+                continue;
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyKeyInUseException("A request with this Idempotency-Key is still being processed");
+            }
+
+            sleep();
+        }
+    }
+
+    public void complete(String key, OrderResponseDto response) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.complete(
+                key, response.getOrderId(), jsonMapper.writeValueAsString(response), LocalDateTime.now()));
+    }
+
+    /**
+     * Ends the key of a failed placement. A key that never got an order is freed, so the client
+     * may retry with it. Once an order is attached it was placed and may still go through, so the
+     * key is closed instead and repeats are answered from that order rather than placing another.
+     */
+    public void abandon(String key) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (idempotencyKeyRepository.deleteInProgress(key) == 0) {
+                    idempotencyKeyRepository.completeWithOrder(key, LocalDateTime.now());
+                }
+            });
+        } catch (Exception e) {
+            // once stale the key is taken over, or answered from its order
+            log.warn("Failed to release Idempotency-Key {}: {}", key, e.getMessage());
+        }
+    }
+
+    public OrderResponseDto storedResponse(IdempotencyKey record) {
+        return record.getResponse() == null ? null : jsonMapper.readValue(record.getResponse(), OrderResponseDto.class);
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int purged = 0;
+            Integer deleted;
+
+            do {
+                deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(now, purgeBatchSize));
+                purged += deleted != null ? deleted : 0;
+            } while (deleted != null && deleted == purgeBatchSize);
+
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean insert(String key, String fingerprint) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.saveAndFlush(
+                    IdempotencyKey.builder()
+                            .idempotencyKey(key)
+                            .fingerprint(fingerprint)
+                            .status(IdempotencyStatus.IN_PROGRESS)
+                            .expiresAt(LocalDateTime.now().plus(ttl))
+                            .build()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean takeOver(String key) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer taken = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.takeOver(key, now.minus(inProgressTimeout), now));
+
+        return taken != null && taken == 1;
+    }
+
+    // The key is global, so the same key sent for another user is a different request
+    private String fingerprint(Long userId) {
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(("POST /api/orders/place/" + userId).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.advann.order_service.job;
+
+import com.advann.order_service.client.ProductClient;
+import com.advann.order_service.dto.ProductSummaryDto;
+import com.advann.order_service.payload.ApiResponse;
+import com.advann.order_service.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off backfill of the product name/image snapshot on order items placed before the
+ * snapshot existed. Runs once the application is ready; walks the distinct product ids still
+ * missing it, one product-service batch lookup and one UPDATE per product per page. Safe to
+ * run on every instance and on every start: it only fills rows that are still empty.
+ * {@link #isFinished()} tells {@link OrderSummaryBackfill} whether items still empty after it
+ * ran are waiting for the next start or belong to products that no longer exist.
+ */
+@Component
+public class OrderItemSnapshotBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderItemSnapshotBackfill.class);
+
+    // product-service caps its batch lookup at 200 ids
+    private static final int BATCH_SIZE = 200;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductClient productClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.snapshot-backfill.enabled:true}")
+    private boolean enabled;
+
+    // set once a run has walked every product still missing the snapshot
+    private volatile boolean finished;
+
+    public OrderItemSnapshotBackfill(OrderItemRepository orderItemRepository,
+                                     ProductClient productClient,
+                                     PlatformTransactionManager transactionManager) {
+        this.orderItemRepository = orderItemRepository;
+        this.productClient = productClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+
+        if (!enabled) {
+            // nothing will fill the remaining rows on this instance
+            finished = true;
+            return;
+        }
+
+        long afterProductId = 0;
+        int filled = 0;
+        int missing = 0;
+
+        try {
+            List<Long> productIds;
+
+            while (!(productIds = orderItemRepository.findProductIdsWithoutSnapshot(
+                    afterProductId, Limit.of(BATCH_SIZE))).isEmpty()) {
+
+                ApiResponse<Map<Long, ProductSummaryDto>> response = productClient.getProductsByIds(productIds);
+                Map<Long, ProductSummaryDto> products =
+                        response != null && response.getData() != null ? response.getData() : Map.of();
+
+                filled += transactionTemplate.execute(status -> products.values().stream()
+                        .mapToInt(product -> orderItemRepository.fillSnapshot(
+                                product.getId(), product.getName(), product.getImageUrl()))
+                        .sum());
+
+                // products deleted since are left without a snapshot; the walk moves past them
+                missing += productIds.size() - products.size();
+                afterProductId = productIds.get(productIds.size() - 1);
+            }
+
+            finished = true;
+        } catch (Exception e) {
+            // rows still empty are picked up on the next start
+            log.warn("Order item snapshot backfill stopped after product id {}: {}", afterProductId, e.getMessage());
+        }
+
+        if (filled > 0 || missing > 0) {
+            log.info("Order item snapshot backfill filled {} items, {} products no longer exist", filled, missing);
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,114 @@
+package com.advann.order_service.job;
+
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One-off backfill of the order_summaries read model for orders placed before it existed.
+ * Runs after the item snapshot backfill, so the summaries get the filled product names. If that
+ * backfill stopped early, orders with items still lacking a snapshot are skipped and projected
+ * on a later start, since a summary is never rewritten once inserted. Walks the orders still
+ * missing a summary in id order, two selects and one insert batch per page. Safe to run on
+ * every instance and on every start: it never overwrites an existing summary.
+ */
+@Component
+public class OrderSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final OrderItemSnapshotBackfill orderItemSnapshotBackfill;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.summary-backfill.enabled:true}")
+    private boolean enabled;
+
+    public OrderSummaryBackfill(OrderRepository orderRepository,
+                                OrderItemRepository orderItemRepository,
+                                OrderSummaryRepository orderSummaryRepository,
+                                OrderSummaryProjector orderSummaryProjector,
+                                OrderItemSnapshotBackfill orderItemSnapshotBackfill,
+                                PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.orderItemSnapshotBackfill = orderItemSnapshotBackfill;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // after OrderItemSnapshotBackfill
+    @org.springframework.core.annotation.Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+
+        if (!enabled) {
+            return;
+        }
+
+        // once the snapshot backfill has finished, items still without one are of deleted products
+        boolean snapshotsFilled = orderItemSnapshotBackfill.isFinished();
+
+        long afterId = 0;
+        int inserted = 0;
+        int skipped = 0;
+
+        try {
+            List<Order> orders;
+
+            while (!(orders = orderRepository.findWithoutSummary(afterId, Limit.of(BATCH_SIZE))).isEmpty()) {
+
+                List<Order> page = orders;
+
+                Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository
+                        .findByOrderIdIn(page.stream().map(Order::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+
+                List<Order> ready = page.stream()
+                        .filter(order -> snapshotsFilled || itemsByOrder.getOrDefault(order.getId(), List.of())
+                                .stream().allMatch(item -> item.getProductName() != null))
+                        .toList();
+
+                skipped += page.size() - ready.size();
+
+                inserted += transactionTemplate.execute(status -> ready.stream()
+                        .mapToInt(order -> orderSummaryRepository.insertIfAbsent(orderSummaryProjector.summary(
+                                order, itemsByOrder.getOrDefault(order.getId(), List.of()))))
+                        .sum());
+
+                afterId = orders.get(orders.size() - 1).getId();
+            }
+        } catch (Exception e) {
+            // orders still missing a summary are picked up on the next start
+            log.warn("Order summary backfill stopped after order id {}: {}", afterId, e.getMessage());
+        }
+
+        if (inserted > 0 || skipped > 0) {
+            log.info("Order summary backfill inserted {} summaries, {} orders wait for item snapshots",
+                    inserted, skipped);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.advann.order_service.mapper;
+
+import com.advann.order_service.dto.OrderItemResponseDto;
+import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSummaryView;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface OrderMapper {
+
+    // Everything comes from the order item as placed, not from the current product
+    OrderItemResponseDto toItemDto(OrderItem item);
+
+    @Mapping(target = "orderId", source = "order.id")
+    @Mapping(target = "items", source = "items")
+    OrderResponseDto toResponseDto(Order order, List<OrderItemResponseDto> items);
+
+    @Mapping(target = "items", source = "items")
+    OrderResponseDto toResponseDto(OrderSummaryView summary, List<OrderItemResponseDto> items);
+}
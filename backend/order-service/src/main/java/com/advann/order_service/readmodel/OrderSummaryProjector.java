@@ -0,0 +1,79 @@
+package com.advann.order_service.readmodel;
+
+import com.advann.order_service.dto.OrderItemResponseDto;
+import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSummary;
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.mapper.OrderMapper;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains the {@code order_summaries} read model: one row per order carrying its lines as
+ * JSON, so order reads never join {@code orders} and {@code order_items}, the tables checkout
+ * writes to. Each projection runs in the transaction of the order write it follows, so a
+ * summary always commits (or rolls back) with its order.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryProjector {
+
+    private static final TypeReference<List<OrderItemResponseDto>> ITEMS = new TypeReference<>() {
+    };
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderMapper orderMapper;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Order order, List<OrderItem> items) {
+        orderSummaryRepository.save(summary(order, items));
+    }
+
+    // Status transitions only touch the statuses; the lines are fixed at placement
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderChanged(Order order) {
+
+        int updated = orderSummaryRepository.updateStatuses(
+                order.getId(), order.getOrderStatus(), order.getPaymentStatus(), LocalDateTime.now());
+
+        if (updated == 0) {
+            orderSummaryRepository.upsert(summary(order, orderItemRepository.findByOrderId(order.getId())));
+        }
+    }
+
+    public OrderSummary summary(Order order, List<OrderItem> items) {
+
+        List<OrderItemResponseDto> lines = items.stream()
+                .map(orderMapper::toItemDto)
+                .toList();
+
+        return OrderSummary.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .orderStatus(order.getOrderStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(lines.stream().mapToInt(OrderItemResponseDto::getQuantity).sum())
+                .items(jsonMapper.writeValueAsString(lines))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public OrderResponseDto toResponseDto(OrderSummaryView summary) {
+        return orderMapper.toResponseDto(summary, jsonMapper.readValue(summary.getItems(), ITEMS));
+    }
+}
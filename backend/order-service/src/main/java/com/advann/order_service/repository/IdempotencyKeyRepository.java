@@ -0,0 +1,75 @@
+package com.advann.order_service.repository;
+
+import com.advann.order_service.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    // 0 means the key already has an order (or is gone); the caller rolls its order back
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k SET k.orderId = :orderId
+            WHERE k.idempotencyKey = :key AND k.orderId IS NULL
+              AND k.status = com.advann.order_service.enums.IdempotencyStatus.IN_PROGRESS
+            """)
+    int attachOrder(@Param("key") String key, @Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = com.advann.order_service.enums.IdempotencyStatus.COMPLETED,
+                k.response = :response, k.orderId = :orderId, k.updatedAt = :now
+            WHERE k.idempotencyKey = :key
+            """)
+    int complete(@Param("key") String key,
+                 @Param("orderId") Long orderId,
+                 @Param("response") String response,
+                 @Param("now") LocalDateTime now);
+
+    // Takes over a key whose request died before creating an order
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k SET k.updatedAt = :now
+            WHERE k.idempotencyKey = :key AND k.orderId IS NULL
+              AND k.status = com.advann.order_service.enums.IdempotencyStatus.IN_PROGRESS
+              AND k.updatedAt < :staleBefore
+            """)
+    int takeOver(@Param("key") String key,
+                 @Param("staleBefore") LocalDateTime staleBefore,
+                 @Param("now") LocalDateTime now);
+
+    // Only a key without an order can be freed; 0 means an order was already placed under it
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyKey k
+            WHERE k.idempotencyKey = :key AND k.orderId IS NULL
+              AND k.status = com.advann.order_service.enums.IdempotencyStatus.IN_PROGRESS
+            """)
+    int deleteInProgress(@Param("key") String key);
+
+    // Closes a key whose request failed after placing its order; repeats are answered from that order
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = com.advann.order_service.enums.IdempotencyStatus.COMPLETED, k.updatedAt = :now
+            WHERE k.idempotencyKey = :key AND k.orderId IS NOT NULL
+              AND k.status = com.advann.order_service.enums.IdempotencyStatus.IN_PROGRESS
+            """)
+    int completeWithOrder(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // Bounded batches keep each purge transaction short
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_idempotency_keys
+            WHERE id IN (SELECT id FROM order_idempotency_keys WHERE expires_at < :now LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
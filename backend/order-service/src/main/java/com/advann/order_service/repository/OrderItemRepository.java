@@ -1,11 +1,37 @@
 package com.advann.order_service.repository;
 
 import com.advann.order_service.entity.OrderItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByOrderId(Long orderId);
+
+    // Items of a whole page of orders in one select
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItem> findByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Backfill of the product snapshot for items placed before it existed, walked by product id
+    @Query("""
+            SELECT DISTINCT i.productId FROM OrderItem i
+            WHERE i.productName IS NULL AND i.productId > :afterProductId
+            ORDER BY i.productId
+            """)
+    List<Long> findProductIdsWithoutSnapshot(@Param("afterProductId") Long afterProductId, Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE OrderItem i SET i.productName = :productName, i.productImage = :productImage
+            WHERE i.productId = :productId AND i.productName IS NULL
+            """)
+    int fillSnapshot(@Param("productId") Long productId,
+                     @Param("productName") String productName,
+                     @Param("productImage") String productImage);
 }
\ No newline at end of file
@@ -1,11 +1,23 @@
 package com.advann.order_service.repository;
 
 import com.advann.order_service.entity.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByUserId(Long userId);
+
+    // Orders still missing from the order_summaries read model, in id order
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM OrderSummary s WHERE s.orderId = o.id)
+            ORDER BY o.id
+            """)
+    List<Order> findWithoutSummary(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
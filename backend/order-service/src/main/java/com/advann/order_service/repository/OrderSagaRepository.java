@@ -0,0 +1,41 @@
+package com.advann.order_service.repository;
+
+import com.advann.order_service.entity.OrderSaga;
+import com.advann.order_service.enums.SagaStep;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, Long> {
+
+    @Query("""
+            SELECT s.id FROM OrderSaga s
+            WHERE s.step IN :steps
+              AND s.nextAttemptAt <= :now
+              AND (s.lockedUntil IS NULL OR s.lockedUntil < :now)
+            ORDER BY s.nextAttemptAt
+            """)
+    List<Long> findDueIds(@Param("steps") Collection<SagaStep> steps,
+                          @Param("now") LocalDateTime now,
+                          Limit limit);
+
+    // Takes the lease unless another thread holds a live one; 0 means someone else runs the saga.
+    // The version bump makes the previous holder's next save fail, however late it comes.
+    @Modifying
+    @Query("""
+            UPDATE OrderSaga s SET s.lockedUntil = :until, s.version = s.version + 1
+            WHERE s.id = :id
+              AND s.step IN :steps
+              AND (s.lockedUntil IS NULL OR s.lockedUntil < :now)
+            """)
+    int claim(@Param("id") Long id,
+              @Param("steps") Collection<SagaStep> steps,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+}
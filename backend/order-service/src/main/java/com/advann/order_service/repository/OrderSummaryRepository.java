@@ -0,0 +1,52 @@
+package com.advann.order_service.repository;
+
+import com.advann.order_service.entity.OrderSummary;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+// Write side of the read model; reads go through OrderSummaryViewRepository, which also covers archived orders
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // 0 means the order has no summary yet (placed before the read model existed)
+    @Modifying
+    @Query("""
+            UPDATE OrderSummary s
+            SET s.orderStatus = :orderStatus, s.paymentStatus = :paymentStatus, s.updatedAt = :updatedAt
+            WHERE s.orderId = :orderId
+            """)
+    int updateStatuses(@Param("orderId") Long orderId,
+                       @Param("orderStatus") OrderStatus orderStatus,
+                       @Param("paymentStatus") PaymentStatus paymentStatus,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Live write for an order without a summary: a backfill racing it cannot make it fail, and loses
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_summaries
+                (order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at)
+            VALUES (:#{#s.orderId}, :#{#s.userId}, :#{#s.orderStatus.name()}, :#{#s.paymentStatus.name()},
+                    :#{#s.totalAmount}, :#{#s.itemCount}, :#{#s.items}, :#{#s.createdAt}, :#{#s.updatedAt})
+            ON CONFLICT (order_id) DO UPDATE
+            SET order_status = EXCLUDED.order_status,
+                payment_status = EXCLUDED.payment_status,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsert(@Param("s") OrderSummary summary);
+
+    // Backfill write: never overwrites a summary kept by live writes
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_summaries
+                (order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at)
+            VALUES (:#{#s.orderId}, :#{#s.userId}, :#{#s.orderStatus.name()}, :#{#s.paymentStatus.name()},
+                    :#{#s.totalAmount}, :#{#s.itemCount}, :#{#s.items}, :#{#s.createdAt}, :#{#s.updatedAt})
+            ON CONFLICT (order_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("s") OrderSummary summary);
+}
@@ -0,0 +1,47 @@
+package com.advann.order_service.repository;
+
+import com.advann.order_service.dto.OrderSearchCriteria;
+import com.advann.order_service.entity.OrderSummaryView;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Filters backed by the composite (filter column, created_at, order_id) indexes on order_summaries
+public final class OrderSummarySpecifications {
+
+    private OrderSummarySpecifications() {
+    }
+
+    // Validates eagerly, so a bad range fails the request before anything is queried or streamed
+    public static Specification<OrderSummaryView> matching(OrderSearchCriteria criteria) {
+
+        if (criteria.getFrom() != null && criteria.getTo() != null && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        return (root, query, cb) -> {
+
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getUserId() != null) {
+                predicates.add(cb.equal(root.get("userId"), criteria.getUserId()));
+            }
+            if (criteria.getOrderStatus() != null) {
+                predicates.add(cb.equal(root.get("orderStatus"), criteria.getOrderStatus()));
+            }
+            if (criteria.getPaymentStatus() != null) {
+                predicates.add(cb.equal(root.get("paymentStatus"), criteria.getPaymentStatus()));
+            }
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.getFrom()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), criteria.getTo()));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.advann.order_service.repository;
+
+import com.advann.order_service.entity.OrderSummaryView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+// Read-only: summaries are written through OrderSummaryRepository and moved by OrderArchiver
+public interface OrderSummaryViewRepository extends Repository<OrderSummaryView, Long>, JpaSpecificationExecutor<OrderSummaryView> {
+
+    Optional<OrderSummaryView> findById(Long orderId);
+
+    List<OrderSummaryView> findByUserId(Long userId);
+
+    Window<OrderSummaryView> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+}
@@ -0,0 +1,386 @@
+package com.advann.order_service.saga;
+
+import com.advann.order_service.client.CartClient;
+import com.advann.order_service.client.ProductClient;
+import com.advann.order_service.dto.OrderedItemDto;
+import com.advann.order_service.dto.OrderedItemsRequestDto;
+import com.advann.order_service.dto.StockBatchRequestDto;
+import com.advann.order_service.dto.StockLineDto;
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSaga;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.SagaStep;
+import com.advann.order_service.exception.IdempotencyKeyInUseException;
+import com.advann.order_service.exception.ResourceNotFoundException;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.IdempotencyKeyRepository;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSagaRepository;
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Persistent saga behind order placement: reserve the stock, then clear the cart. If the
+ * reservation is rejected or keeps failing, whatever the order holds is released and the
+ * order is cancelled.
+ * <p>
+ * Clearing the cart is a post-commit step: it only starts once the reservation and the
+ * CREATED status have committed, the placing request is answered without waiting for it, and
+ * it is retried until cart-service accepts it. It takes out only the ordered quantities, and
+ * cart-service applies each order once, so a late retry never removes what the user added
+ * after placing.
+ * <p>
+ * The order, its items and the saga row are committed together before any remote call, and
+ * each step's outcome is committed before the next step starts, so a crash at any point
+ * leaves a row saying where to pick up. Steps run on the saga executor under a lease
+ * ({@code lockedUntil}), never inside a database transaction. A failed step is retried with
+ * backoff; {@link #sweep()} resumes sagas that are due, including those whose lease ran out
+ * because their instance died mid-step. Every remote call is keyed by order id and
+ * idempotent, so running a step twice is harmless. Each claim bumps the saga's version, so a
+ * step that outlives its lease cannot commit over whoever took the saga over.
+ */
+@Component
+public class OrderPlacementSaga {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPlacementSaga.class);
+
+    private static final List<SagaStep> ACTIVE_STEPS =
+            List.of(SagaStep.RESERVE_STOCK, SagaStep.CLEAR_CART, SagaStep.RELEASE_STOCK);
+
+    private static final String INSUFFICIENT_STOCK = "Insufficient stock for one or more items in the cart";
+
+    private final OrderSagaRepository orderSagaRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
+    private final ProductClient productClient;
+    private final CartClient cartClient;
+    private final Executor sagaExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.order.saga.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.order.saga.retry-backoff:2s}")
+    private Duration retryBackoff;
+
+    @Value("${app.order.saga.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${app.order.saga.lease:2m}")
+    private Duration lease;
+
+    @Value("${app.order.saga.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    public OrderPlacementSaga(OrderSagaRepository orderSagaRepository,
+                              OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              OrderSummaryProjector orderSummaryProjector,
+                              ProductClient productClient,
+                              CartClient cartClient,
+                              @Qualifier("sagaExecutor") Executor sagaExecutor,
+                              PlatformTransactionManager transactionManager) {
+        this.orderSagaRepository = orderSagaRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.productClient = productClient;
+        this.cartClient = cartClient;
+        this.sagaExecutor = sagaExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records the order, its items and a new saga in one local transaction, attaching the order
+     * to the request's Idempotency-Key if any. The caller holds the saga's lease and is expected
+     * to {@link #runAsync run} it.
+     */
+    public OrderSaga begin(Order order, List<OrderItem> items, String idempotencyKey) {
+
+        return transactionTemplate.execute(status -> {
+
+            orderRepository.save(order);
+            orderItemRepository.saveAll(items);
+            orderSummaryProjector.orderPlaced(order, items);
+
+            // rolls the order back if the key already got one (a stale request taken over, then resumed)
+            if (idempotencyKey != null && idempotencyKeyRepository.attachOrder(idempotencyKey, order.getId()) == 0) {
+                throw new IdempotencyKeyInUseException("Idempotency-Key was already used to place another order");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+
+            return orderSagaRepository.save(OrderSaga.builder()
+                    .orderId(order.getId())
+                    .userId(order.getUserId())
+                    .step(SagaStep.RESERVE_STOCK)
+                    .nextAttemptAt(now)
+                    .lockedUntil(now.plus(lease))
+                    .build());
+        });
+    }
+
+    /**
+     * Runs a claimed saga until it finishes or has to wait for a retry. The returned future
+     * completes as soon as the order's fate is decided: once the reservation has committed, or
+     * once the saga stops. Clearing the cart carries on in the background after that.
+     */
+    public CompletableFuture<OrderSaga> runAsync(OrderSaga saga) {
+
+        CompletableFuture<OrderSaga> decided = new CompletableFuture<>();
+
+        start(saga, decided);
+
+        return decided;
+    }
+
+    // Also runs right after startup, picking up whatever a previous process left half done
+    @Scheduled(fixedDelayString = "${app.order.saga.sweep-interval-ms:5000}")
+    public void sweep() {
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = orderSagaRepository.findDueIds(ACTIVE_STEPS, now, Limit.of(sweepBatchSize));
+
+            for (Long sagaId : due) {
+
+                if (!claim(sagaId)) {
+                    continue;
+                }
+
+                OrderSaga saga = orderSagaRepository.findById(sagaId).orElse(null);
+
+                // the executor is full: the rest stay due for the next sweep
+                if (saga != null && !start(saga, new CompletableFuture<>())) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Order saga sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // False if the executor is saturated; the saga is then handed back, still due, for a later sweep
+    private boolean start(OrderSaga saga, CompletableFuture<OrderSaga> decided) {
+
+        try {
+            CompletableFuture.runAsync(() -> execute(saga, decided), sagaExecutor)
+                    .whenComplete((ignored, e) -> {
+                        if (e != null) {
+                            decided.completeExceptionally(e);
+                        }
+                    });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Saga executor is saturated, orderId {} is left to the sweeper", saga.getOrderId());
+            decided.complete(unlock(saga));
+            return false;
+        }
+    }
+
+    OrderSaga execute(OrderSaga saga) {
+        return execute(saga, new CompletableFuture<>());
+    }
+
+    private OrderSaga execute(OrderSaga saga, CompletableFuture<OrderSaga> decided) {
+        try {
+            return runSteps(saga, decided);
+        } catch (OptimisticLockingFailureException e) {
+            // The step outlived its lease and the saga was claimed again (or already finished):
+            // its outcome is not committed, and whatever the current holder records stands
+            log.warn("Order saga for orderId {} lost its lease during step {}, leaving it to its new holder",
+                    saga.getOrderId(), saga.getStep());
+            OrderSaga current = orderSagaRepository.findById(saga.getId()).orElse(saga);
+            decided.complete(current);
+            return current;
+        }
+    }
+
+    private OrderSaga runSteps(OrderSaga saga, CompletableFuture<OrderSaga> decided) {
+
+        while (!saga.getStep().isTerminal()) {
+
+            // Past the reservation the order stands whatever the cart does, so the caller need not wait
+            if (saga.getStep() == SagaStep.CLEAR_CART) {
+                decided.complete(saga);
+            }
+
+            try {
+                saga = switch (saga.getStep()) {
+                    case RESERVE_STOCK -> reserveStock(saga);
+                    case CLEAR_CART -> clearCart(saga);
+                    case RELEASE_STOCK -> releaseStock(saga);
+                    default -> throw new IllegalStateException("Unexpected saga step " + saga.getStep());
+                };
+            } catch (OptimisticLockingFailureException e) {
+                throw e;
+            } catch (Exception e) {
+
+                // compensation and cart clearing are retried for as long as it takes: nothing may stay
+                // reserved, and a placed order must not leave its cart behind
+                if (saga.getStep() != SagaStep.RESERVE_STOCK || saga.getAttempts() + 1 < maxAttempts) {
+                    saga = retryLater(saga, e);
+                    decided.complete(saga);
+                    return saga;
+                }
+
+                saga = giveUp(saga, e);
+            }
+        }
+
+        decided.complete(saga);
+        return saga;
+    }
+
+    private OrderSaga reserveStock(OrderSaga saga) {
+
+        StockBatchRequestDto stockBatch = new StockBatchRequestDto(
+                orderItemRepository.findByOrderId(saga.getOrderId()).stream()
+                        .map(item -> new StockLineDto(item.getProductId(), item.getQuantity()))
+                        .toList());
+
+        try {
+            productClient.reserveStockForOrder(saga.getOrderId(), stockBatch);
+        } catch (FeignException.Conflict e) {
+            // A rejected reservation holds nothing, so there is nothing to compensate
+            log.warn("Stock reservation rejected for orderId {}: {}", saga.getOrderId(), e.contentUTF8());
+            return advance(saga, SagaStep.COMPENSATED, OrderStatus.CANCELLED, INSUFFICIENT_STOCK);
+        }
+
+        return advance(saga, SagaStep.CLEAR_CART, OrderStatus.CREATED, null);
+    }
+
+    private OrderSaga clearCart(OrderSaga saga) {
+
+        // Only the ordered lines: anything added since stays, and cart-service applies an order once
+        OrderedItemsRequestDto ordered = new OrderedItemsRequestDto(saga.getOrderId(),
+                orderItemRepository.findByOrderId(saga.getOrderId()).stream()
+                        .map(item -> new OrderedItemDto(item.getProductId(), item.getQuantity()))
+                        .toList());
+
+        try {
+            cartClient.removeOrderedItems(saga.getUserId(), ordered);
+        } catch (FeignException.NotFound e) {
+            // no cart left to take the lines out of
+            log.info("No cart to clear for orderId {}", saga.getOrderId());
+        }
+
+        return advance(saga, SagaStep.COMPLETED, null, null);
+    }
+
+    private OrderSaga releaseStock(OrderSaga saga) {
+
+        // idempotent, and a no-op if the reservation never landed
+        productClient.releaseReservation(saga.getOrderId());
+
+        return advance(saga, SagaStep.COMPENSATED, OrderStatus.CANCELLED, saga.getLastError());
+    }
+
+    private OrderSaga giveUp(OrderSaga saga, Exception e) {
+
+        String error = truncate(e.getMessage());
+
+        log.error("Stock reservation for orderId {} failed {} times, compensating: {}",
+                saga.getOrderId(), maxAttempts, error);
+
+        return advance(saga, SagaStep.RELEASE_STOCK, null,
+                "Order placement failed. All reserved stock released. Cause: " + error);
+    }
+
+    // Commits the step's outcome; the lease is kept for the next step and dropped once the saga ends
+    private OrderSaga advance(OrderSaga saga, SagaStep next, OrderStatus orderStatus, String error) {
+
+        return transactionTemplate.execute(status -> {
+
+            if (orderStatus != null) {
+                Order order = orderRepository.findById(saga.getOrderId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + saga.getOrderId()));
+                order.setOrderStatus(orderStatus);
+                orderRepository.save(order);
+                orderSummaryProjector.orderChanged(order);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+
+            saga.setStep(next);
+            saga.setAttempts(0);
+            saga.setLastError(truncate(error));
+            saga.setNextAttemptAt(now);
+            saga.setLockedUntil(next.isTerminal() ? null : now.plus(lease));
+
+            return orderSagaRepository.save(saga);
+        });
+    }
+
+    private OrderSaga retryLater(OrderSaga saga, Exception e) {
+
+        int attempts = saga.getAttempts() + 1;
+        Duration delay = backoff(attempts);
+
+        log.warn("Order saga step {} for orderId {} failed (attempt {}), retrying in {}: {}",
+                saga.getStep(), saga.getOrderId(), attempts, delay, e.getMessage());
+
+        return transactionTemplate.execute(status -> {
+
+            saga.setAttempts(attempts);
+            saga.setLastError(truncate(e.getMessage()));
+            saga.setNextAttemptAt(LocalDateTime.now().plus(delay));
+            saga.setLockedUntil(null);
+
+            return orderSagaRepository.save(saga);
+        });
+    }
+
+    private OrderSaga unlock(OrderSaga saga) {
+        try {
+            return transactionTemplate.execute(status -> {
+                saga.setLockedUntil(null);
+                return orderSagaRepository.save(saga);
+            });
+        } catch (Exception e) {
+            // the lease runs out on its own
+            return saga;
+        }
+    }
+
+    private boolean claim(Long sagaId) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer claimed = transactionTemplate.execute(status ->
+                orderSagaRepository.claim(sagaId, ACTIVE_STEPS, now, now.plus(lease)));
+
+        return claimed != null && claimed == 1;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String message) {
+        return message == null || message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -1,38 +1,111 @@
 package com.advann.order_service.service.serviceImpl;
 
 import com.advann.order_service.client.CartClient;
-import com.advann.order_service.client.ProductClient;
 import com.advann.order_service.dto.*;
+import com.advann.order_service.entity.IdempotencyKey;
 import com.advann.order_service.entity.Order;
 import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSaga;
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.enums.EventType;
 import com.advann.order_service.enums.OrderStatus;
 import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.enums.SagaStep;
+import com.advann.order_service.events.OutboxEvents;
+import com.advann.order_service.exception.IdempotencyKeyInUseException;
 import com.advann.order_service.exception.ResourceNotFoundException;
+import com.advann.order_service.idempotency.OrderIdempotency;
+import com.advann.order_service.mapper.OrderMapper;
 import com.advann.order_service.payload.ApiResponse;
 import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
 import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSummaryViewRepository;
+import com.advann.order_service.repository.OrderSummarySpecifications;
+import com.advann.order_service.saga.OrderPlacementSaga;
 import com.advann.order_service.service.services.OrderService;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 50;
+
+    // id breaks ties so every order has a unique position
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "orderId"));
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartClient cartClient;
-    private final ProductClient productClient;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
+    private final OutboxEvents outboxEvents;
+    private final OrderPlacementSaga orderPlacementSaga;
+    private final OrderIdempotency orderIdempotency;
+    private final OrderSummaryViewRepository orderSummaryViewRepository;
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    @Value("${app.order.placement-timeout:5s}")
+    private Duration placementTimeout;
 
     @Override
-    @Transactional
-    public OrderResponseDto placeOrder(Long userId) {
+    public OrderResponseDto placeOrder(Long userId, String idempotencyKey) {
+
+        if (idempotencyKey == null) {
+            return placeNewOrder(userId, null);
+        }
+
+        // A repeat (client retry on timeout) is answered from the first request, never placed again
+        IdempotencyKey previous = orderIdempotency.claim(idempotencyKey, userId);
+
+        if (previous != null) {
+            return replay(previous);
+        }
+
+        OrderResponseDto response;
+
+        try {
+            response = placeNewOrder(userId, idempotencyKey);
+        } catch (IdempotencyKeyInUseException e) {
+            // the key now belongs to another request, leave it alone
+            throw e;
+        } catch (RuntimeException e) {
+            orderIdempotency.abandon(idempotencyKey);
+            throw e;
+        }
+
+        orderIdempotency.complete(idempotencyKey, response);
+
+        return response;
+    }
+
+    private OrderResponseDto placeNewOrder(Long userId, String idempotencyKey) {
 
         ApiResponse<CartResponseDto> cartResponse = cartClient.getCartByUserId(userId);
 
@@ -44,106 +117,84 @@ public class OrderServiceImpl implements OrderService {
 
         Order order = Order.builder()
                 .userId(userId)
-                .orderStatus(OrderStatus.CREATED)
+                .orderStatus(OrderStatus.PENDING)
                 .paymentStatus(PaymentStatus.PENDING)
                 .totalAmount(cart.getGrandTotal())
                 .build();
 
-        List<CartItemResponseDto> cartItems = cart.getItems();
-
-        try {
-
-            // Step 1: Reserve stock for all items
-            for (CartItemResponseDto cartItem : cartItems) {
-                productClient.reserveStock(cartItem.getProductId(), cartItem.getQuantity());
-            }
-
-            // Step 2: Save Order
-            order = orderRepository.save(order);
-
-            // Step 3: Save Order Items
-            for (CartItemResponseDto cartItem : cartItems) {
-
-                OrderItem orderItem = OrderItem.builder()
-                        .order(order)
-                        .productId(cartItem.getProductId())
-                        .quantity(cartItem.getQuantity())
-                        .price(cartItem.getPrice())
-                        .build();
-
-                orderItemRepository.save(orderItem);
-            }
-
-            // Step 4: Clear Cart
-            cartClient.clearCart(userId);
+        List<OrderItem> orderItems = new ArrayList<>(cart.getItems().size());
 
-            return getOrderById(order.getId());
+        for (CartItemResponseDto cartItem : cart.getItems()) {
 
-        } catch (Exception e) {
+            orderItems.add(OrderItem.builder()
+                    .order(order)
+                    .productId(cartItem.getProductId())
+                    .productName(cartItem.getProductName())
+                    .productImage(cartItem.getProductImage())
+                    .quantity(cartItem.getQuantity())
+                    .price(cartItem.getPrice())
+                    .build());
+        }
 
-            // 🔥 Compensation Logic
-            // If anything fails after reservation, release reserved stock
+        // Step 1: Save Order and Order Items together with the saga that sees them through
+        OrderSaga saga = orderPlacementSaga.begin(order, orderItems, idempotencyKey);
 
-            for (CartItemResponseDto cartItem : cartItems) {
-                try {
-                    productClient.releaseStock(cartItem.getProductId(), cartItem.getQuantity());
-                } catch (Exception ex) {
-                    // Log but do not suppress original exception
-                    System.err.println("Failed to release stock for productId: "
-                            + cartItem.getProductId());
-                }
-            }
+        // Step 2: Reserve stock, Step 3: Clear Cart - run by the saga off-thread, each step recorded as it completes.
+        // The request waits for the reservation up to the placement deadline but holds no transaction meanwhile;
+        // past it the order is returned PENDING and the saga carries on. The cart is cleared after it answers.
+        saga = awaitOutcome(orderPlacementSaga.runAsync(saga), saga);
 
-            throw new RuntimeException("Order placement failed. All reserved stock released.", e);
+        if (saga.getStep() == SagaStep.COMPENSATED) {
+            throw new RuntimeException(saga.getLastError());
         }
+
+        return getOrderById(saga.getOrderId());
     }
 
     @Override
     public OrderResponseDto getOrderById(Long orderId) {
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        // Served from the read model; an order placed before it existed is composed until backfilled
+        return orderSummaryViewRepository.findById(orderId)
+                .map(orderSummaryProjector::toResponseDto)
+                .orElseGet(() -> composeOrder(orderId));
+    }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+    @Override
+    public List<OrderResponseDto> getOrdersByUserId(Long userId) {
 
-        List<OrderItemResponseDto> responseItems = orderItems.stream()
-                .map(item -> {
+        return orderSummaryViewRepository.findByUserId(userId).stream()
+                .map(orderSummaryProjector::toResponseDto)
+                .toList();
+    }
 
-                    ApiResponse<ProductResponseDto> productResponse =
-                            productClient.getProductById(item.getProductId());
+    @Override
+    public PagedResponseDto<OrderResponseDto> getOrderHistory(Long userId, String cursor, int size) {
 
-                    ProductResponseDto product =
-                            productResponse != null ? productResponse.getData() : null;
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
 
-                    return OrderItemResponseDto.builder()
-                            .productId(item.getProductId())
-                            .productName(product != null ? product.getName() : null)
-                            .quantity(item.getQuantity())
-                            .price(item.getPrice())
-                            .totalPrice(item.getTotalPrice())
-                            .build();
-                })
-                .toList();
+        // One select per page on the read model, whatever the history length
+        Window<OrderSummaryView> window = orderSummaryViewRepository.findByUserId(
+                userId, decodeCursor(cursor), HISTORY_SORT, Limit.of(size));
 
-        return OrderResponseDto.builder()
-                .orderId(order.getId())
-                .userId(order.getUserId())
-                .orderStatus(order.getOrderStatus())
-                .paymentStatus(order.getPaymentStatus())
-                .totalAmount(order.getTotalAmount())
-                .items(responseItems)
-                .createdAt(order.getCreatedAt())
-                .build();
+        return toPage(window, size);
     }
 
     @Override
-    public List<OrderResponseDto> getOrdersByUserId(Long userId) {
+    public PagedResponseDto<OrderResponseDto> searchOrders(OrderSearchCriteria criteria, String cursor, int size) {
+
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
 
-        List<Order> orders = orderRepository.findByUserId(userId);
+        // Same keyset as the history, seeking along whichever composite index leads with the filter
+        Window<OrderSummaryView> window = orderSummaryViewRepository.findBy(
+                OrderSummarySpecifications.matching(criteria),
+                query -> query.sortBy(HISTORY_SORT).limit(size).scroll(decodeCursor(cursor)));
 
-        return orders.stream()
-                .map(order -> getOrderById(order.getId()))
-                .toList();
+        return toPage(window, size);
     }
 
     @Override
@@ -160,14 +211,12 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("Order cannot be cancelled at this stage");
         }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
-
-        for (OrderItem item : orderItems) {
-            productClient.releaseStock(item.getProductId(), item.getQuantity());
-        }
-
         order.setOrderStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        orderSummaryProjector.orderChanged(order);
+
+        // product-service releases the reserved stock on ORDER_CANCELLED
+        outboxEvents.enqueue(EventType.ORDER_CANCELLED, orderId);
 
         return getOrderById(orderId);
     }
@@ -182,34 +231,57 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Order not found with id: " + orderId));
 
+        PaymentStatus newStatus = requestDto.getPaymentStatus();
+
+        // Not an IllegalStateException: the saga settles within seconds, so a payment event is retried
+        if (order.getOrderStatus() == OrderStatus.PENDING) {
+            throw new RuntimeException("Order is still being placed");
+        }
+
+        // Replayed payment event: already applied
+        if (order.getPaymentStatus() == newStatus) {
+            return getOrderById(orderId);
+        }
+
         if (order.getPaymentStatus() != PaymentStatus.PENDING) {
-            throw new RuntimeException("Payment already processed for this order");
+            throw new IllegalStateException("Payment already processed for this order");
         }
 
-        PaymentStatus newStatus = requestDto.getPaymentStatus();
+        // Cancelled while the payment was in flight: its stock is already released, so the order
+        // stays cancelled and a captured payment is flagged for refund instead of confirming the order
+        if (order.getOrderStatus() == OrderStatus.CANCELLED) {
+
+            order.setPaymentStatus(newStatus);
+
+            if (newStatus == PaymentStatus.PAID) {
+                log.warn("Payment captured for cancelled orderId {}, requesting a refund", orderId);
+                outboxEvents.enqueue(EventType.ORDER_REFUND_REQUIRED, orderId);
+            }
+
+            orderRepository.save(order);
+            orderSummaryProjector.orderChanged(order);
+
+            return getOrderById(orderId);
+        }
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        // Stock follows asynchronously: product-service consumes the order event committed with this change
 
         if (newStatus == PaymentStatus.PAID) {
 
             // 🔹 Confirm stock permanently
-            for (OrderItem item : orderItems) {
-                productClient.confirmStock(item.getProductId(), item.getQuantity());
-            }
-
             order.setPaymentStatus(PaymentStatus.PAID);
             order.setOrderStatus(OrderStatus.CONFIRMED);
+
+            outboxEvents.enqueue(EventType.ORDER_CONFIRMED, orderId);
         }
 
         else if (newStatus == PaymentStatus.FAILED) {
 
             // 🔹 Release reserved stock
-            for (OrderItem item : orderItems) {
-                productClient.releaseStock(item.getProductId(), item.getQuantity());
-            }
-
             order.setPaymentStatus(PaymentStatus.FAILED);
             order.setOrderStatus(OrderStatus.CANCELLED);
+
+            outboxEvents.enqueue(EventType.ORDER_CANCELLED, orderId);
         }
 
         else {
@@ -217,6 +289,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         orderRepository.save(order);
+        orderSummaryProjector.orderChanged(order);
 
         return getOrderById(orderId);
     }
@@ -234,6 +307,10 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("Order status cannot be changed");
         }
 
+        if (order.getOrderStatus() == OrderStatus.PENDING) {
+            throw new RuntimeException("Order is still being placed");
+        }
+
         if (order.getOrderStatus() == OrderStatus.CONFIRMED && newStatus != OrderStatus.SHIPPED) {
             throw new RuntimeException("Order must be SHIPPED after CONFIRMED");
         }
@@ -244,7 +321,96 @@ public class OrderServiceImpl implements OrderService {
 
         order.setOrderStatus(newStatus);
         orderRepository.save(order);
+        orderSummaryProjector.orderChanged(order);
 
         return getOrderById(orderId);
     }
-}
\ No newline at end of file
+
+    private OrderResponseDto composeOrder(Long orderId) {
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+
+        List<OrderItemResponseDto> responseItems = orderItemRepository.findByOrderId(orderId).stream()
+                .map(orderMapper::toItemDto)
+                .toList();
+
+        return orderMapper.toResponseDto(order, responseItems);
+    }
+
+    private PagedResponseDto<OrderResponseDto> toPage(Window<OrderSummaryView> window, int size) {
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encodeCursor(window.getContent().get(window.size() - 1))
+                : null;
+
+        return PagedResponseDto.<OrderResponseDto>builder()
+                .content(window.getContent().stream().map(orderSummaryProjector::toResponseDto).toList())
+                .pageSize(size)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Cursor layout (base64url): createdAt|id of the last order on the page - opaque to clients
+    private String encodeCursor(OrderSummaryView last) {
+
+        String raw = last.getCreatedAt() + "|" + last.getOrderId();
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScrollPosition decodeCursor(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(parts[0]));
+            keys.put("orderId", Long.valueOf(parts[1]));
+
+            return ScrollPosition.forward(keys);
+
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+    }
+
+    private OrderResponseDto replay(IdempotencyKey previous) {
+
+        OrderResponseDto stored = orderIdempotency.storedResponse(previous);
+
+        // a PENDING snapshot is outdated as soon as the saga moves on
+        if (stored != null && stored.getOrderStatus() != OrderStatus.PENDING) {
+            return stored;
+        }
+
+        return getOrderById(previous.getOrderId());
+    }
+
+    private OrderSaga awaitOutcome(CompletableFuture<OrderSaga> outcome, OrderSaga started) {
+
+        try {
+            return outcome.get(placementTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return started;
+        } catch (ExecutionException e) {
+            // the saga row is still due, the sweeper resumes it
+            log.warn("Order saga for orderId {} stopped: {}", started.getOrderId(), e.getCause().getMessage());
+            return started;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return started;
+        }
+    }
+}
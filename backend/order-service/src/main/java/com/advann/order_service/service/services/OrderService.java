@@ -1,6 +1,8 @@
 package com.advann.order_service.service.services;
 
 import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.dto.OrderSearchCriteria;
+import com.advann.order_service.dto.PagedResponseDto;
 import com.advann.order_service.dto.PaymentStatusUpdateRequestDto;
 import com.advann.order_service.enums.OrderStatus;
 
@@ -8,12 +10,16 @@ import java.util.List;
 
 public interface OrderService {
 
-    OrderResponseDto placeOrder(Long userId);
+    OrderResponseDto placeOrder(Long userId, String idempotencyKey);
 
     OrderResponseDto getOrderById(Long orderId);
 
     List<OrderResponseDto> getOrdersByUserId(Long userId);
 
+    PagedResponseDto<OrderResponseDto> getOrderHistory(Long userId, String cursor, int size);
+
+    PagedResponseDto<OrderResponseDto> searchOrders(OrderSearchCriteria criteria, String cursor, int size);
+
     OrderResponseDto cancelOrder(Long orderId);
 
     OrderResponseDto updatePaymentStatus(Long orderId, PaymentStatusUpdateRequestDto requestDto);
@@ -0,0 +1,153 @@
+package com.advann.order_service.archive;
+
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.repository.OrderSummaryViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Partitioned tables and SKIP LOCKED are Postgres-only, so the archiver runs against a real one
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the archiver commits its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiverTest {
+
+    private static final Long USER_ID = 7L;
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderSummaryViewRepository orderSummaryViewRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        archiver = new OrderArchiver(new NamedParameterJdbcTemplate(dataSource), transactionManager);
+        ReflectionTestUtils.setField(archiver, "enabled", true);
+        ReflectionTestUtils.setField(archiver, "closedFor", Duration.ofDays(90));
+        // smaller than the number of archivable orders, so a run takes several batches
+        ReflectionTestUtils.setField(archiver, "batchSize", 2);
+
+        archiver.createSchema();
+
+        jdbcTemplate.execute("TRUNCATE order_items, order_summaries, order_sagas, orders, "
+                + "orders_archive, order_items_archive, order_summaries_archive");
+    }
+
+    @Test
+    void schemaCreationCanRunAgain() {
+
+        assertDoesNotThrow(archiver::createSchema);
+    }
+
+    @Test
+    void closedOrdersOfAMonthMoveToItsPartitionAndStayReadable() {
+
+        insertOrder(1L, "DELIVERED", MARCH);
+        insertOrder(2L, "CANCELLED", MARCH);
+        insertOrder(3L, "DELIVERED", MARCH.plusDays(5));
+        // still open, and closed too recently: both stay live
+        insertOrder(4L, "CONFIRMED", MARCH);
+        insertOrder(5L, "DELIVERED", LocalDateTime.now());
+
+        archiver.archive();
+
+        assertEquals(List.of(4L, 5L), jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Long.class));
+        assertEquals(3, count("orders_archive_2025_03"));
+        assertEquals(3, count("order_items_archive_2025_03"));
+        assertEquals(3, count("order_summaries_archive_2025_03"));
+        assertEquals(0, count("order_items WHERE order_id IN (1, 2, 3)"));
+        assertEquals(0, count("order_summaries WHERE order_id IN (1, 2, 3)"));
+
+        // reads see live and archived orders as one
+        List<OrderSummaryView> summaries = orderSummaryViewRepository.findByUserId(USER_ID);
+        assertEquals(5, summaries.size());
+
+        OrderSummaryView archived = orderSummaryViewRepository.findById(2L).orElseThrow();
+        assertEquals(OrderStatus.CANCELLED, archived.getOrderStatus());
+        assertTrue(archived.getItems().contains("Keyboard"));
+    }
+
+    @Test
+    void runWithNothingToArchiveCreatesNoPartitions() {
+
+        insertOrder(1L, "DELIVERED", LocalDateTime.now());
+
+        archiver.archive();
+
+        assertEquals(0, count("pg_inherits"));
+        assertEquals(1, count("orders"));
+    }
+
+    private void insertOrder(Long id, String status, LocalDateTime at) {
+
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, user_id, order_status, payment_status, total_amount, created_at, updated_at, version)
+                VALUES (?, ?, ?, 'PAID', 20.00, ?, ?, 0)
+                """, id, USER_ID, status, at, at);
+
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, product_id, product_name, quantity, price, total_price, created_at, updated_at)
+                VALUES (?, ?, 3, 'Keyboard', 2, 10.00, 20.00, ?, ?)
+                """, id, id, at, at);
+
+        jdbcTemplate.update("""
+                INSERT INTO order_summaries
+                    (order_id, user_id, order_status, payment_status, total_amount, item_count, items, created_at, updated_at)
+                VALUES (?, ?, ?, 'PAID', 20.00, 1, '[{"productName":"Keyboard"}]', ?, ?)
+                """, id, USER_ID, status, at, at);
+    }
+
+    private int count(String from) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + from, Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.advann.order_service.events;
+
+import com.advann.order_service.dto.PaymentStatusUpdateRequestDto;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.exception.ResourceNotFoundException;
+import com.advann.order_service.service.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PaymentEventConsumerTest {
+
+    private static final String STREAM = "payment-events";
+    private static final String GROUP = "order-service";
+    private static final RecordId EVENT_ID = RecordId.of("1-0");
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    private PaymentEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+
+        consumer = new PaymentEventConsumer(orderService, redisTemplate);
+        ReflectionTestUtils.setField(consumer, "stream", STREAM);
+        ReflectionTestUtils.setField(consumer, "consumerName", "order-1");
+        ReflectionTestUtils.setField(consumer, "batchSize", 50);
+        ReflectionTestUtils.setField(consumer, "redeliveryAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(consumer, "maxDeliveries", 10);
+
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of());
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(), anyLong()))
+                .thenReturn(new PendingMessages(GROUP, List.of()));
+    }
+
+    @Test
+    void eventIsAcknowledgedOnceTheOrderIsUpdated() {
+
+        read(paymentEvent("PAYMENT_PAID"));
+
+        consumer.poll();
+
+        var order = inOrder(orderService, streamOperations);
+        order.verify(orderService).updatePaymentStatus(100L, new PaymentStatusUpdateRequestDto(PaymentStatus.PAID));
+        order.verify(streamOperations).acknowledge(STREAM, GROUP, EVENT_ID);
+    }
+
+    @Test
+    void failedEventStaysPendingForRedelivery() {
+
+        read(paymentEvent("PAYMENT_FAILED"));
+        doThrow(new RuntimeException("Order is still being placed"))
+                .when(orderService).updatePaymentStatus(eq(100L), any());
+
+        consumer.poll();
+
+        verify(streamOperations, never()).acknowledge(eq(STREAM), eq(GROUP), any(RecordId.class));
+    }
+
+    @Test
+    void eventForAnUnknownOrderIsDropped() {
+
+        read(paymentEvent("PAYMENT_PAID"));
+        doThrow(new ResourceNotFoundException("Order not found with id: 100"))
+                .when(orderService).updatePaymentStatus(eq(100L), any());
+
+        consumer.poll();
+
+        verify(streamOperations).acknowledge(STREAM, GROUP, EVENT_ID);
+    }
+
+    @Test
+    void eventPendingPastTheRedeliveryDelayIsReclaimedAndHandled() {
+
+        pending(Duration.ofMinutes(1), 2);
+        when(streamOperations.claim(STREAM, GROUP, "order-1", Duration.ofSeconds(30), EVENT_ID))
+                .thenReturn(List.of(paymentEvent("PAYMENT_PAID")));
+
+        consumer.poll();
+
+        var order = inOrder(orderService, streamOperations);
+        order.verify(orderService).updatePaymentStatus(eq(100L), any());
+        order.verify(streamOperations).acknowledge(STREAM, GROUP, EVENT_ID);
+    }
+
+    @Test
+    void recentlyDeliveredEventIsLeftToItsConsumer() {
+
+        pending(Duration.ofSeconds(5), 1);
+
+        consumer.poll();
+
+        verify(streamOperations, never()).claim(any(), any(), any(), any(Duration.class), any(RecordId.class));
+        verify(orderService, never()).updatePaymentStatus(anyLong(), any());
+    }
+
+    @Test
+    void eventDeliveredTooOftenIsGivenUp() {
+
+        pending(Duration.ofMinutes(1), 10);
+
+        consumer.poll();
+
+        verify(streamOperations, never()).claim(any(), any(), any(), any(Duration.class), any(RecordId.class));
+        verify(streamOperations).acknowledge(STREAM, GROUP, EVENT_ID);
+    }
+
+    private void read(MapRecord<String, Object, Object> record) {
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(record));
+    }
+
+    private void pending(Duration idle, long deliveries) {
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(), anyLong())).thenReturn(new PendingMessages(GROUP,
+                List.of(new PendingMessage(EVENT_ID, Consumer.from(GROUP, "order-2"), idle, deliveries))));
+    }
+
+    private static MapRecord<String, Object, Object> paymentEvent(String type) {
+        return MapRecord.<String, Object, Object>create(STREAM, Map.of("type", type, "aggregateId", "100"))
+                .withId(EVENT_ID);
+    }
+}
@@ -0,0 +1,121 @@
+package com.advann.order_service.export;
+
+import com.advann.order_service.dto.OrderSearchCriteria;
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.enums.ExportFormat;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderExporterTest {
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2026, 9, 1, 10, 0);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TypedQuery<OrderSummaryView> query;
+
+    private OrderExporter orderExporter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+
+        orderExporter = new OrderExporter(entityManager, orderSummaryProjector, JsonMapper.builder().build(), transactionManager);
+        ReflectionTestUtils.setField(orderExporter, "fetchSize", 500);
+
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery<OrderSummaryView> criteriaQuery = mock(CriteriaQuery.class);
+
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(OrderSummaryView.class)).thenReturn(criteriaQuery);
+        when(criteriaQuery.from(OrderSummaryView.class)).thenReturn(mock(Root.class));
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+    }
+
+    @Test
+    void csvIsStreamedFromCursorAndRowsDetached() throws Exception {
+
+        when(query.getResultStream()).thenReturn(Stream.of(summary(1L), summary(2L)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExporter.export(new OrderSearchCriteria(), ExportFormat.CSV).writeTo(out);
+
+        assertEquals("""
+                orderId,userId,orderStatus,paymentStatus,totalAmount,itemCount,createdAt,updatedAt
+                1,7,CONFIRMED,PAID,19.90,2,2026-09-01T10:00,2026-09-01T10:00
+                2,7,CONFIRMED,PAID,19.90,2,2026-09-01T10:00,2026-09-01T10:00
+                """, out.toString(StandardCharsets.UTF_8));
+        verify(query).setHint(HibernateHints.HINT_FETCH_SIZE, 500);
+        verify(entityManager, times(2)).detach(any(OrderSummaryView.class));
+    }
+
+    @Test
+    void invalidRangeFailsBeforeAnythingIsQueried() {
+
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .from(PLACED)
+                .to(PLACED.minusDays(1))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> orderExporter.export(criteria, ExportFormat.NDJSON));
+        verify(entityManager, never()).createQuery(any(CriteriaQuery.class));
+    }
+
+    private OrderSummaryView summary(Long orderId) {
+        return OrderSummaryView.builder()
+                .orderId(orderId)
+                .userId(7L)
+                .orderStatus(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID)
+                .totalAmount(new BigDecimal("19.90"))
+                .itemCount(2)
+                .items("[]")
+                .createdAt(PLACED)
+                .updatedAt(PLACED)
+                .build();
+    }
+}
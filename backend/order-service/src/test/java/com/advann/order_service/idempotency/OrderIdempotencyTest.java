@@ -0,0 +1,146 @@
+package com.advann.order_service.idempotency;
+
+import com.advann.order_service.entity.IdempotencyKey;
+import com.advann.order_service.enums.IdempotencyStatus;
+import com.advann.order_service.exception.IdempotencyKeyInUseException;
+import com.advann.order_service.exception.IdempotencyKeyMismatchException;
+import com.advann.order_service.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyTest {
+
+    private static final String KEY = "retry-1";
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIdempotency orderIdempotency;
+
+    @BeforeEach
+    void setUp() {
+        orderIdempotency = new OrderIdempotency(idempotencyKeyRepository, JsonMapper.builder().build(), transactionManager);
+        ReflectionTestUtils.setField(orderIdempotency, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(orderIdempotency, "waitTimeout", Duration.ofMillis(300));
+        ReflectionTestUtils.setField(orderIdempotency, "inProgressTimeout", Duration.ofMinutes(2));
+    }
+
+    @Test
+    void firstRequestOwnsTheKey() {
+
+        assertNull(orderIdempotency.claim(KEY, USER_ID));
+
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(saved.capture());
+        assertEquals(IdempotencyStatus.IN_PROGRESS, saved.getValue().getStatus());
+    }
+
+    @Test
+    void repeatIsAnsweredFromTheFirstRequest() {
+
+        IdempotencyKey first = existing(IdempotencyStatus.COMPLETED, LocalDateTime.now());
+
+        assertSame(first, orderIdempotency.claim(KEY, USER_ID));
+    }
+
+    @Test
+    void keyOfAnotherUserIsRejected() {
+
+        existing(IdempotencyStatus.COMPLETED, LocalDateTime.now());
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> orderIdempotency.claim(KEY, USER_ID + 1));
+    }
+
+    @Test
+    void concurrentRepeatGivesUpAfterWaiting() {
+
+        existing(IdempotencyStatus.IN_PROGRESS, LocalDateTime.now());
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> orderIdempotency.claim(KEY, USER_ID));
+    }
+
+    @Test
+    void staleKeyWithoutOrderIsTakenOver() {
+
+        existing(IdempotencyStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5));
+        when(idempotencyKeyRepository.takeOver(eq(KEY), any(), any())).thenReturn(1);
+
+        assertNull(orderIdempotency.claim(KEY, USER_ID));
+    }
+
+    @Test
+    void failedPlacementWithoutOrderFreesTheKey() {
+
+        when(idempotencyKeyRepository.deleteInProgress(KEY)).thenReturn(1);
+
+        orderIdempotency.abandon(KEY);
+
+        verify(idempotencyKeyRepository, never()).completeWithOrder(eq(KEY), any());
+    }
+
+    @Test
+    void failedPlacementAfterOrderWasAttachedKeepsTheKeyOnThatOrder() {
+
+        // begin() committed the order under the key, then placement threw
+        when(idempotencyKeyRepository.deleteInProgress(KEY)).thenReturn(0);
+
+        orderIdempotency.abandon(KEY);
+
+        verify(idempotencyKeyRepository).completeWithOrder(eq(KEY), any());
+
+        // a retry with the key is answered from that order instead of placing a second one
+        IdempotencyKey first = existing(IdempotencyStatus.COMPLETED, LocalDateTime.now());
+
+        assertSame(first, orderIdempotency.claim(KEY, USER_ID));
+    }
+
+    // the key is already taken: inserting fails and the lookup returns the first request's record
+    private IdempotencyKey existing(IdempotencyStatus status, LocalDateTime updatedAt) {
+
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        IdempotencyKey record = IdempotencyKey.builder()
+                .idempotencyKey(KEY)
+                .fingerprint(fingerprintOf(USER_ID))
+                .status(status)
+                .orderId(status == IdempotencyStatus.COMPLETED ? 100L : null)
+                .updatedAt(updatedAt)
+                .build();
+
+        when(idempotencyKeyRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(record));
+        return record;
+    }
+
+    private String fingerprintOf(Long userId) {
+        return ReflectionTestUtils.invokeMethod(orderIdempotency, "fingerprint", userId);
+    }
+}
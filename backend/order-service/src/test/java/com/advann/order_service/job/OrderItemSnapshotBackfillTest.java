@@ -0,0 +1,109 @@
+package com.advann.order_service.job;
+
+import com.advann.order_service.client.ProductClient;
+import com.advann.order_service.dto.ProductSummaryDto;
+import com.advann.order_service.payload.ApiResponse;
+import com.advann.order_service.repository.OrderItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderItemSnapshotBackfillTest {
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderItemSnapshotBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+
+        backfill = new OrderItemSnapshotBackfill(orderItemRepository, productClient, transactionManager);
+        ReflectionTestUtils.setField(backfill, "enabled", true);
+
+        // two pages of product ids, then nothing left
+        when(orderItemRepository.findProductIdsWithoutSnapshot(0L, Limit.of(200))).thenReturn(List.of(1L, 2L));
+        when(orderItemRepository.findProductIdsWithoutSnapshot(2L, Limit.of(200))).thenReturn(List.of(5L));
+        when(orderItemRepository.findProductIdsWithoutSnapshot(5L, Limit.of(200))).thenReturn(List.of());
+
+        // product 2 has been deleted since
+        when(productClient.getProductsByIds(List.of(1L, 2L))).thenReturn(products(product(1L, "Keyboard")));
+        when(productClient.getProductsByIds(List.of(5L))).thenReturn(products(product(5L, "Mouse")));
+
+        when(orderItemRepository.fillSnapshot(anyLong(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void everyPageIsFilledFromOneBatchLookup() {
+
+        backfill.backfill();
+
+        verify(orderItemRepository).fillSnapshot(1L, "Keyboard", "keyboard.png");
+        verify(orderItemRepository).fillSnapshot(5L, "Mouse", "mouse.png");
+        verify(orderItemRepository, never()).fillSnapshot(eq(2L), any(), any());
+        // the walk moves past the deleted product instead of asking for it again
+        verify(orderItemRepository).findProductIdsWithoutSnapshot(5L, Limit.of(200));
+        assertTrue(backfill.isFinished());
+    }
+
+    @Test
+    void failedLookupStopsTheWalkUnfinished() {
+
+        when(productClient.getProductsByIds(List.of(5L))).thenThrow(new IllegalStateException("product-service down"));
+
+        backfill.backfill();
+
+        verify(orderItemRepository).fillSnapshot(1L, "Keyboard", "keyboard.png");
+        verify(orderItemRepository, never()).findProductIdsWithoutSnapshot(5L, Limit.of(200));
+        assertFalse(backfill.isFinished());
+    }
+
+    @Test
+    void disabledBackfillFillsNothing() {
+
+        ReflectionTestUtils.setField(backfill, "enabled", false);
+
+        backfill.backfill();
+
+        verify(orderItemRepository, never()).findProductIdsWithoutSnapshot(anyLong(), any());
+        assertTrue(backfill.isFinished());
+    }
+
+    private static ProductSummaryDto product(Long id, String name) {
+        return ProductSummaryDto.builder().id(id).name(name).imageUrl(name.toLowerCase() + ".png").build();
+    }
+
+    private static ApiResponse<Map<Long, ProductSummaryDto>> products(ProductSummaryDto product) {
+        return ApiResponse.<Map<Long, ProductSummaryDto>>builder()
+                .success(true)
+                .data(Map.of(product.getId(), product))
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.advann.order_service.job;
+
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSummary;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderSummaryBackfillTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Mock
+    private OrderItemSnapshotBackfill orderItemSnapshotBackfill;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderSummaryBackfill backfill;
+
+    private Order snapshotted;
+
+    private Order unsnapshotted;
+
+    @BeforeEach
+    void setUp() {
+
+        backfill = new OrderSummaryBackfill(orderRepository, orderItemRepository, orderSummaryRepository,
+                orderSummaryProjector, orderItemSnapshotBackfill, transactionManager);
+        ReflectionTestUtils.setField(backfill, "enabled", true);
+
+        snapshotted = Order.builder().id(1L).build();
+        unsnapshotted = Order.builder().id(2L).build();
+
+        when(orderRepository.findWithoutSummary(eq(0L), any())).thenReturn(List.of(snapshotted, unsnapshotted));
+        when(orderRepository.findWithoutSummary(eq(2L), any())).thenReturn(List.of());
+        when(orderItemRepository.findByOrderIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                OrderItem.builder().order(snapshotted).productId(3L).productName("Keyboard").build(),
+                OrderItem.builder().order(unsnapshotted).productId(4L).build()));
+
+        when(orderSummaryProjector.summary(any(), any())).thenAnswer(invocation ->
+                OrderSummary.builder().orderId(invocation.<Order>getArgument(0).getId()).build());
+        when(orderSummaryRepository.insertIfAbsent(any())).thenReturn(1);
+    }
+
+    @Test
+    void ordersWithUnfilledItemsWaitWhileTheSnapshotBackfillIsUnfinished() {
+
+        when(orderItemSnapshotBackfill.isFinished()).thenReturn(false);
+
+        backfill.backfill();
+
+        verify(orderSummaryProjector).summary(eq(snapshotted), any());
+        verify(orderSummaryProjector, never()).summary(eq(unsnapshotted), any());
+        // the walk still moves past them; they are found again on the next start
+        verify(orderRepository).findWithoutSummary(eq(2L), any());
+    }
+
+    @Test
+    void itemsStillUnfilledAfterAFinishedSnapshotBackfillAreProjectedAsTheyAre() {
+
+        when(orderItemSnapshotBackfill.isFinished()).thenReturn(true);
+
+        backfill.backfill();
+
+        verify(orderSummaryProjector).summary(eq(snapshotted), any());
+        verify(orderSummaryProjector).summary(eq(unsnapshotted), any());
+    }
+
+    @Test
+    void disabledBackfillDoesNothing() {
+
+        ReflectionTestUtils.setField(backfill, "enabled", false);
+
+        backfill.backfill();
+
+        verify(orderRepository, never()).findWithoutSummary(anyLong(), any());
+    }
+}
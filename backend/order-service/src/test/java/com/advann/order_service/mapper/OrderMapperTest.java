@@ -0,0 +1,47 @@
+package com.advann.order_service.mapper;
+
+import com.advann.order_service.dto.OrderItemResponseDto;
+import com.advann.order_service.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderMapperTest {
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+
+    @Test
+    void itemDtoCarriesTheSnapshotTakenAtPlacement() {
+
+        OrderItem item = OrderItem.builder()
+                .productId(3L)
+                .productName("Keyboard")
+                .productImage("keyboard.png")
+                .quantity(2)
+                .price(new BigDecimal("10.00"))
+                .totalPrice(new BigDecimal("20.00"))
+                .build();
+
+        OrderItemResponseDto dto = orderMapper.toItemDto(item);
+
+        assertEquals(3L, dto.getProductId());
+        assertEquals("Keyboard", dto.getProductName());
+        assertEquals("keyboard.png", dto.getProductImage());
+        assertEquals(2, dto.getQuantity());
+        assertEquals(new BigDecimal("10.00"), dto.getPrice());
+        assertEquals(new BigDecimal("20.00"), dto.getTotalPrice());
+    }
+
+    @Test
+    void itemWithoutASnapshotMapsWithoutNameOrImage() {
+
+        OrderItemResponseDto dto = orderMapper.toItemDto(OrderItem.builder().productId(3L).quantity(1).build());
+
+        assertEquals(3L, dto.getProductId());
+        assertNull(dto.getProductName());
+        assertNull(dto.getProductImage());
+    }
+}
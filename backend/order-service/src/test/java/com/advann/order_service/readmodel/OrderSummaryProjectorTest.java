@@ -0,0 +1,122 @@
+package com.advann.order_service.readmodel;
+
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSummary;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.mapper.OrderMapperImpl;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderSummaryProjectorTest {
+
+    private static final Long ORDER_ID = 100L;
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private OrderSummaryProjector projector;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+
+        projector = new OrderSummaryProjector(
+                orderSummaryRepository, orderItemRepository, new OrderMapperImpl(), JsonMapper.builder().build());
+
+        order = Order.builder()
+                .id(ORDER_ID)
+                .userId(7L)
+                .orderStatus(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID)
+                .totalAmount(new BigDecimal("25.00"))
+                .createdAt(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .build();
+
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(
+                item(3L, "Keyboard", 2, "10.00"), item(4L, "Mouse", 1, "5.00")));
+    }
+
+    @Test
+    void changeOfAnOrderWithASummaryOnlyUpdatesItsStatuses() {
+
+        when(orderSummaryRepository.updateStatuses(eq(ORDER_ID), any(), any(), any())).thenReturn(1);
+
+        projector.orderChanged(order);
+
+        verify(orderSummaryRepository).updateStatuses(eq(ORDER_ID), eq(OrderStatus.CONFIRMED), eq(PaymentStatus.PAID), any());
+        verify(orderSummaryRepository, never()).upsert(any());
+        // the lines are fixed at placement and never reloaded
+        verify(orderItemRepository, never()).findByOrderId(any());
+    }
+
+    @Test
+    void changeOfAnOrderWithoutASummaryProjectsItWhole() {
+
+        when(orderSummaryRepository.updateStatuses(eq(ORDER_ID), any(), any(), any())).thenReturn(0);
+
+        projector.orderChanged(order);
+
+        ArgumentCaptor<OrderSummary> summary = ArgumentCaptor.forClass(OrderSummary.class);
+        verify(orderSummaryRepository).upsert(summary.capture());
+
+        assertEquals(ORDER_ID, summary.getValue().getOrderId());
+        assertEquals(OrderStatus.CONFIRMED, summary.getValue().getOrderStatus());
+        assertEquals(3, summary.getValue().getItemCount());
+        assertTrue(summary.getValue().getItems().contains("Keyboard"));
+        assertTrue(summary.getValue().getItems().contains("Mouse"));
+    }
+
+    @Test
+    void summaryLinesReadBackAsTheOrderItems() {
+
+        OrderSummary summary = projector.summary(order, orderItemRepository.findByOrderId(ORDER_ID));
+
+        var lines = JsonMapper.builder().build().readTree(summary.getItems());
+
+        assertEquals(2, lines.size());
+        assertEquals("Keyboard", lines.get(0).get("productName").asString());
+        assertEquals(0, new BigDecimal("20.00").compareTo(lines.get(0).get("totalPrice").decimalValue()));
+        assertEquals(order.getCreatedAt(), summary.getCreatedAt());
+    }
+
+    private OrderItem item(Long productId, String name, int quantity, String price) {
+        return OrderItem.builder()
+                .order(order)
+                .productId(productId)
+                .productName(name)
+                .productImage(name.toLowerCase() + ".png")
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .totalPrice(new BigDecimal(price).multiply(BigDecimal.valueOf(quantity)))
+                .build();
+    }
+}
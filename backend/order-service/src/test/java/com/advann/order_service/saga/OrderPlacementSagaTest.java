@@ -0,0 +1,296 @@
+package com.advann.order_service.saga;
+
+import com.advann.order_service.client.CartClient;
+import com.advann.order_service.client.ProductClient;
+import com.advann.order_service.dto.OrderedItemDto;
+import com.advann.order_service.dto.OrderedItemsRequestDto;
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderItem;
+import com.advann.order_service.entity.OrderSaga;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.SagaStep;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.IdempotencyKeyRepository;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSagaRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderPlacementSagaTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long ORDER_ID = 100L;
+
+    @Mock
+    private OrderSagaRepository orderSagaRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private CartClient cartClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Order order;
+
+    private OrderPlacementSaga orderPlacementSaga;
+
+    @BeforeEach
+    void setUp() {
+
+        orderPlacementSaga = new OrderPlacementSaga(orderSagaRepository, orderRepository, orderItemRepository,
+                idempotencyKeyRepository, orderSummaryProjector, productClient, cartClient, Runnable::run, transactionManager);
+        ReflectionTestUtils.setField(orderPlacementSaga, "maxAttempts", 2);
+        ReflectionTestUtils.setField(orderPlacementSaga, "retryBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(orderPlacementSaga, "maxBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(orderPlacementSaga, "lease", Duration.ofMinutes(2));
+
+        order = Order.builder().id(ORDER_ID).userId(USER_ID).orderStatus(OrderStatus.PENDING).build();
+
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of(
+                OrderItem.builder().productId(1L).quantity(2).build()));
+        when(orderSagaRepository.save(any(OrderSaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void reservedOrderIsCreatedAndCartCleared() {
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.RESERVE_STOCK, 0));
+
+        assertEquals(SagaStep.COMPLETED, saga.getStep());
+        assertNull(saga.getLockedUntil());
+        assertEquals(OrderStatus.CREATED, order.getOrderStatus());
+        // only the ordered lines, tagged with the order so cart-service applies them once
+        ArgumentCaptor<OrderedItemsRequestDto> ordered = ArgumentCaptor.forClass(OrderedItemsRequestDto.class);
+        verify(cartClient).removeOrderedItems(eq(USER_ID), ordered.capture());
+        assertEquals(ORDER_ID, ordered.getValue().getOrderId());
+        assertEquals(List.of(new OrderedItemDto(1L, 2)), ordered.getValue().getItems());
+    }
+
+    @Test
+    void missingCartCountsAsCleared() {
+
+        when(cartClient.removeOrderedItems(anyLong(), any())).thenThrow(mock(FeignException.NotFound.class));
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.CLEAR_CART, 0));
+
+        assertEquals(SagaStep.COMPLETED, saga.getStep());
+        assertEquals(0, saga.getAttempts());
+    }
+
+    @Test
+    void rejectedReservationCancelsWithoutCompensation() {
+
+        when(productClient.reserveStockForOrder(anyLong(), any())).thenThrow(mock(FeignException.Conflict.class));
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.RESERVE_STOCK, 0));
+
+        assertEquals(SagaStep.COMPENSATED, saga.getStep());
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        verify(productClient, never()).releaseReservation(anyLong());
+        verify(cartClient, never()).removeOrderedItems(anyLong(), any());
+    }
+
+    @Test
+    void failingReservationIsRetriedThenCompensated() {
+
+        when(productClient.reserveStockForOrder(anyLong(), any())).thenThrow(new IllegalStateException("timeout"));
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.RESERVE_STOCK, 0));
+
+        // first failure: left for the sweeper, lease dropped
+        assertEquals(SagaStep.RESERVE_STOCK, saga.getStep());
+        assertEquals(1, saga.getAttempts());
+        assertNull(saga.getLockedUntil());
+        assertTrue(saga.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(productClient, never()).releaseReservation(anyLong());
+
+        saga = orderPlacementSaga.execute(saga);
+
+        assertEquals(SagaStep.COMPENSATED, saga.getStep());
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        verify(productClient).releaseReservation(ORDER_ID);
+        verify(cartClient, never()).removeOrderedItems(anyLong(), any());
+    }
+
+    @Test
+    void reservationThatTimedOutAfterLandingIsReleasedWhenGivenUp() {
+
+        // product-service applies every reservation, but each response times out on the way back
+        Set<Long> reserved = new HashSet<>();
+        when(productClient.reserveStockForOrder(anyLong(), any())).thenAnswer(invocation -> {
+            reserved.add(invocation.getArgument(0));
+            throw readTimeout();
+        });
+        doAnswer(invocation -> {
+            reserved.remove(invocation.<Long>getArgument(0));
+            return null;
+        }).when(productClient).releaseReservation(anyLong());
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.RESERVE_STOCK, 0));
+
+        assertEquals(SagaStep.RESERVE_STOCK, saga.getStep());
+        assertEquals(Set.of(ORDER_ID), reserved);
+
+        saga = orderPlacementSaga.execute(saga);
+
+        // giving up runs RELEASE_STOCK, which frees what the timed-out calls reserved
+        assertEquals(SagaStep.COMPENSATED, saga.getStep());
+        assertTrue(saga.getLastError().contains("Read timed out"));
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        assertTrue(reserved.isEmpty());
+        verify(productClient, times(2)).reserveStockForOrder(eq(ORDER_ID), any());
+        verify(productClient).releaseReservation(ORDER_ID);
+        verify(cartClient, never()).removeOrderedItems(anyLong(), any());
+    }
+
+    @Test
+    void failingCartClearingKeepsOrderAndIsNeverGivenUp() {
+
+        when(cartClient.removeOrderedItems(anyLong(), any())).thenThrow(new IllegalStateException("unavailable"));
+
+        CompletableFuture<OrderSaga> decided = orderPlacementSaga.runAsync(saga(SagaStep.RESERVE_STOCK, 0));
+
+        assertTrue(decided.isDone());
+        assertEquals(OrderStatus.CREATED, order.getOrderStatus());
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.CLEAR_CART, 10));
+
+        assertEquals(SagaStep.CLEAR_CART, saga.getStep());
+        assertEquals(11, saga.getAttempts());
+        assertEquals(OrderStatus.CREATED, order.getOrderStatus());
+        verify(productClient, never()).releaseReservation(anyLong());
+    }
+
+    @Test
+    void failingReleaseIsNeverGivenUp() {
+
+        when(productClient.releaseReservation(anyLong())).thenThrow(new IllegalStateException("unavailable"));
+
+        OrderSaga saga = orderPlacementSaga.execute(saga(SagaStep.RELEASE_STOCK, 10));
+
+        assertEquals(SagaStep.RELEASE_STOCK, saga.getStep());
+        assertEquals(11, saga.getAttempts());
+        assertEquals(OrderStatus.PENDING, order.getOrderStatus());
+    }
+
+    @Test
+    void stepThatOutlivedItsLeaseDoesNotOverwriteTheNewHolder() {
+
+        // the reservation ran past the lease; meanwhile the sweeper re-claimed the saga, which gave up and compensated
+        OrderSaga compensated = saga(SagaStep.COMPENSATED, 0);
+        when(orderSagaRepository.save(any(OrderSaga.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OrderSaga.class, 1L));
+        when(orderSagaRepository.findById(1L)).thenReturn(Optional.of(compensated));
+
+        CompletableFuture<OrderSaga> decided = orderPlacementSaga.runAsync(saga(SagaStep.RESERVE_STOCK, 0));
+
+        assertEquals(SagaStep.COMPENSATED, decided.join().getStep());
+        // the step is abandoned, not retried or carried on to the cart
+        verify(orderSagaRepository).save(any(OrderSaga.class));
+        verify(cartClient, never()).removeOrderedItems(anyLong(), any());
+    }
+
+    @Test
+    void saturatedExecutorLeavesSagasDueInsteadOfBlocking() {
+
+        OrderPlacementSaga saturated = new OrderPlacementSaga(orderSagaRepository, orderRepository, orderItemRepository,
+                idempotencyKeyRepository, orderSummaryProjector, productClient, cartClient,
+                task -> {
+                    throw new RejectedExecutionException("queue full");
+                },
+                transactionManager);
+        ReflectionTestUtils.setField(saturated, "lease", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(saturated, "sweepBatchSize", 10);
+
+        // a placing request gets its saga back unlocked, still at its first step
+        OrderSaga decided = saturated.runAsync(saga(SagaStep.RESERVE_STOCK, 0)).join();
+
+        assertEquals(SagaStep.RESERVE_STOCK, decided.getStep());
+        assertNull(decided.getLockedUntil());
+
+        // the sweep stops at the first rejection rather than claiming the rest
+        when(orderSagaRepository.findDueIds(any(), any(), any())).thenReturn(List.of(1L, 2L));
+        when(orderSagaRepository.claim(anyLong(), any(), any(), any())).thenReturn(1);
+        when(orderSagaRepository.findById(1L)).thenReturn(Optional.of(saga(SagaStep.RESERVE_STOCK, 0)));
+
+        saturated.sweep();
+
+        verify(orderSagaRepository, never()).claim(eq(2L), any(), any(), any());
+        verify(productClient, never()).reserveStockForOrder(anyLong(), any());
+    }
+
+    private static RetryableException readTimeout() {
+        String url = "http://product-service/internal/products/reservations/" + ORDER_ID;
+        Request request = Request.create(Request.HttpMethod.POST, url, Map.of(), null, StandardCharsets.UTF_8, null);
+        return new RetryableException(-1, "Read timed out executing POST " + url,
+                Request.HttpMethod.POST, new SocketTimeoutException("Read timed out"), (Long) null, request);
+    }
+
+    private OrderSaga saga(SagaStep step, int attempts) {
+        return OrderSaga.builder()
+                .id(1L)
+                .orderId(ORDER_ID)
+                .userId(USER_ID)
+                .step(step)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .lockedUntil(LocalDateTime.now().plusMinutes(2))
+                .build();
+    }
+}
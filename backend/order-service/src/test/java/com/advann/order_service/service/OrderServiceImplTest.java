@@ -0,0 +1,242 @@
+package com.advann.order_service.service;
+
+import com.advann.order_service.client.CartClient;
+import com.advann.order_service.dto.CartItemResponseDto;
+import com.advann.order_service.dto.CartResponseDto;
+import com.advann.order_service.dto.OrderResponseDto;
+import com.advann.order_service.dto.PagedResponseDto;
+import com.advann.order_service.dto.PaymentStatusUpdateRequestDto;
+import com.advann.order_service.entity.Order;
+import com.advann.order_service.entity.OrderSaga;
+import com.advann.order_service.entity.OrderSummaryView;
+import com.advann.order_service.enums.EventType;
+import com.advann.order_service.enums.OrderStatus;
+import com.advann.order_service.enums.PaymentStatus;
+import com.advann.order_service.enums.SagaStep;
+import com.advann.order_service.events.OutboxEvents;
+import com.advann.order_service.idempotency.OrderIdempotency;
+import com.advann.order_service.mapper.OrderMapper;
+import com.advann.order_service.payload.ApiResponse;
+import com.advann.order_service.readmodel.OrderSummaryProjector;
+import com.advann.order_service.repository.OrderItemRepository;
+import com.advann.order_service.repository.OrderRepository;
+import com.advann.order_service.repository.OrderSummaryViewRepository;
+import com.advann.order_service.saga.OrderPlacementSaga;
+import com.advann.order_service.service.serviceImpl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderServiceImplTest {
+
+    private static final Long ORDER_ID = 100L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OutboxEvents outboxEvents;
+
+    @Mock
+    private OrderSummaryViewRepository orderSummaryViewRepository;
+
+    @Mock
+    private OrderSummaryProjector orderSummaryProjector;
+
+    @Mock
+    private CartClient cartClient;
+
+    @Mock
+    private OrderPlacementSaga orderPlacementSaga;
+
+    @Mock
+    private OrderIdempotency orderIdempotency;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+
+        order = Order.builder()
+                .id(ORDER_ID)
+                .userId(7L)
+                .orderStatus(OrderStatus.CREATED)
+                .paymentStatus(PaymentStatus.PENDING)
+                .build();
+
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of());
+        when(orderSummaryViewRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+
+        ReflectionTestUtils.setField(orderService, "placementTimeout", Duration.ofSeconds(5));
+
+        when(orderSummaryProjector.toResponseDto(any())).thenAnswer(invocation -> OrderResponseDto.builder()
+                .orderId(invocation.<OrderSummaryView>getArgument(0).getOrderId()).build());
+    }
+
+    @Test
+    void placementFailingAfterTheOrderWasRecordedHandsTheKeyBack() {
+
+        CartItemResponseDto line = CartItemResponseDto.builder()
+                .productId(3L).quantity(2).price(BigDecimal.TEN).build();
+
+        when(cartClient.getCartByUserId(7L)).thenReturn(ApiResponse.<CartResponseDto>builder()
+                .data(CartResponseDto.builder().userId(7L).items(List.of(line)).grandTotal(BigDecimal.valueOf(20)).build())
+                .build());
+
+        // begin() committed the order under the key; the saga then gave up and compensated
+        OrderSaga compensated = OrderSaga.builder()
+                .orderId(ORDER_ID).userId(7L).step(SagaStep.COMPENSATED).lastError("Insufficient stock").build();
+
+        when(orderPlacementSaga.begin(any(), any(), eq("key-1"))).thenReturn(compensated);
+        when(orderPlacementSaga.runAsync(compensated)).thenReturn(CompletableFuture.completedFuture(compensated));
+
+        assertThrows(RuntimeException.class, () -> orderService.placeOrder(7L, "key-1"));
+
+        // abandon() keeps a key with an order on that order, so a retry cannot place a second one
+        verify(orderIdempotency).abandon("key-1");
+        verify(orderIdempotency, never()).complete(eq("key-1"), any());
+    }
+
+    @Test
+    void paymentForCancelledOrderRequestsRefundInsteadOfConfirming() {
+
+        orderService.cancelOrder(ORDER_ID);
+        verify(outboxEvents).enqueue(EventType.ORDER_CANCELLED, ORDER_ID);
+
+        orderService.updatePaymentStatus(ORDER_ID, new PaymentStatusUpdateRequestDto(PaymentStatus.PAID));
+
+        assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        assertEquals(PaymentStatus.PAID, order.getPaymentStatus());
+        verify(outboxEvents).enqueue(EventType.ORDER_REFUND_REQUIRED, ORDER_ID);
+        verify(outboxEvents, never()).enqueue(EventType.ORDER_CONFIRMED, ORDER_ID);
+
+        // a redelivered event changes nothing and requests no second refund
+        orderService.updatePaymentStatus(ORDER_ID, new PaymentStatusUpdateRequestDto(PaymentStatus.PAID));
+        verify(outboxEvents).enqueue(EventType.ORDER_REFUND_REQUIRED, ORDER_ID);
+    }
+
+    @Test
+    void paymentForOpenOrderConfirmsIt() {
+
+        orderService.updatePaymentStatus(ORDER_ID, new PaymentStatusUpdateRequestDto(PaymentStatus.PAID));
+
+        assertEquals(OrderStatus.CONFIRMED, order.getOrderStatus());
+        verify(outboxEvents).enqueue(EventType.ORDER_CONFIRMED, ORDER_ID);
+        verify(outboxEvents, never()).enqueue(EventType.ORDER_REFUND_REQUIRED, ORDER_ID);
+    }
+
+    @Test
+    void historyPageCarriesACursorPastItsLastOrder() {
+
+        LocalDateTime newest = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+        when(orderSummaryViewRepository.findByUserId(eq(7L), any(), any(), eq(Limit.of(2))))
+                .thenReturn(window(true, summary(9L, newest), summary(8L, newest.minusDays(1))))
+                .thenReturn(window(false, summary(5L, newest.minusDays(2))));
+
+        PagedResponseDto<OrderResponseDto> first = orderService.getOrderHistory(7L, null, 2);
+
+        assertEquals(List.of(9L, 8L), first.getContent().stream().map(OrderResponseDto::getOrderId).toList());
+        assertFalse(first.isLast());
+        assertEquals(2, first.getPageSize());
+
+        PagedResponseDto<OrderResponseDto> second = orderService.getOrderHistory(7L, first.getNextCursor(), 2);
+
+        assertTrue(second.isLast());
+        assertNull(second.getNextCursor());
+
+        ArgumentCaptor<ScrollPosition> positions = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(orderSummaryViewRepository, times(2))
+                .findByUserId(eq(7L), positions.capture(), any(), any());
+
+        // the first page starts at the top, the second right after the last order of the first
+        assertTrue(positions.getAllValues().get(0).isInitial());
+        KeysetScrollPosition next = (KeysetScrollPosition) positions.getAllValues().get(1);
+        assertEquals(newest.minusDays(1), next.getKeys().get("createdAt"));
+        assertEquals(8L, next.getKeys().get("orderId"));
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+
+        when(orderSummaryViewRepository.findByUserId(eq(7L), any(), any(), any()))
+                .thenReturn(window(false, summary(9L, LocalDateTime.now()), summary(8L, LocalDateTime.now())));
+
+        PagedResponseDto<OrderResponseDto> page = orderService.getOrderHistory(7L, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isLast());
+        assertNull(page.getNextCursor());
+    }
+
+    // not base64, then base64 of "no-separator", "2025-03-10T12:00|abc" and "yesterday|8"
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNS0wMy0xMFQxMjowMHxhYmM", "eWVzdGVyZGF5fDg"})
+    void malformedHistoryCursorIsABadRequest(String cursor) {
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrderHistory(7L, cursor, 10));
+
+        verify(orderSummaryViewRepository, never()).findByUserId(any(), any(), any(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 51})
+    void historyPageSizeOutOfBoundsIsABadRequest(int size) {
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrderHistory(7L, null, size));
+    }
+
+    private static OrderSummaryView summary(Long orderId, LocalDateTime createdAt) {
+        return OrderSummaryView.builder().orderId(orderId).userId(7L).createdAt(createdAt).build();
+    }
+
+    private static Window<OrderSummaryView> window(boolean hasNext, OrderSummaryView... summaries) {
+        return Window.from(List.of(summaries), index -> ScrollPosition.keyset(), hasNext);
+    }
+}
@@ -1,7 +1,6 @@
 package com.advann.payment_service.client;
 
 import com.advann.payment_service.dto.OrderResponseDto;
-import com.advann.payment_service.dto.PaymentStatusUpdateRequestDto;
 import com.advann.payment_service.payload.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
@@ -11,10 +10,4 @@ public interface OrderClient {
 
     @GetMapping("/api/orders/{orderId}")
     ApiResponse<OrderResponseDto> getOrderById(@PathVariable("orderId") Long orderId);
-
-    @PutMapping("/api/orders/{orderId}/payment-status")
-    ApiResponse<Object> updatePaymentStatus(
-            @PathVariable("orderId") Long orderId,
-            @RequestBody PaymentStatusUpdateRequestDto requestDto
-    );
 }
\ No newline at end of file
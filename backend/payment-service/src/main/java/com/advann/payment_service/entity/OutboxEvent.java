@@ -0,0 +1,43 @@
+package com.advann.payment_service.entity;
+
+import com.advann.payment_service.enums.EventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A payment outcome still to be announced on payment-events; written in the same transaction as the payment
+@Entity
+@Table(
+        name = "payment_outbox",
+        indexes = {
+                @Index(name = "idx_payment_outbox_unpublished", columnList = "published_at, id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
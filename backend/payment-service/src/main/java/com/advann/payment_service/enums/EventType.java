@@ -0,0 +1,7 @@
+package com.advann.payment_service.enums;
+
+// Events published on the payment stream; the aggregate id of each is the order id
+public enum EventType {
+    PAYMENT_PAID,
+    PAYMENT_FAILED
+}
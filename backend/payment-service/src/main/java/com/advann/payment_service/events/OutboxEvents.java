@@ -0,0 +1,26 @@
+package com.advann.payment_service.events;
+
+import com.advann.payment_service.entity.OutboxEvent;
+import com.advann.payment_service.enums.EventType;
+import com.advann.payment_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Records payment outcomes for OutboxRelay; called where PaymentServiceImpl settles a payment
+@Component
+@RequiredArgsConstructor
+public class OutboxEvents {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    // MANDATORY: an event is only ever recorded together with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(EventType eventType, Long aggregateId) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .build());
+    }
+}
@@ -3,7 +3,9 @@ package com.advann.payment_service.service.serviceImpl;
 import com.advann.payment_service.client.OrderClient;
 import com.advann.payment_service.dto.*;
 import com.advann.payment_service.entity.Payment;
+import com.advann.payment_service.enums.EventType;
 import com.advann.payment_service.enums.PaymentStatus;
+import com.advann.payment_service.events.OutboxEvents;
 import com.advann.payment_service.payload.ApiResponse;
 import com.advann.payment_service.repository.PaymentRepository;
 import com.advann.payment_service.service.services.PaymentService;
@@ -13,11 +15,13 @@ import lombok.RequiredArgsConstructor;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.HexFormat;
 
 @Service
@@ -27,6 +31,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final RazorpayClient razorpayClient;
     private final PaymentRepository paymentRepository;
     private final OrderClient orderClient;
+    private final OutboxEvents outboxEvents;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${razorpay.key-id}")
     private String razorpayKeyId;
@@ -92,68 +98,68 @@ public class PaymentServiceImpl implements PaymentService {
             return "Payment already verified";
         }
 
-        try {
-
-            String payload = dto.getRazorpayOrderId() + "|" + dto.getRazorpayPaymentId();
-
-            Mac sha256Hmac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    razorpayKeySecret.getBytes(StandardCharsets.UTF_8),
-                    "HmacSHA256"
-            );
-
-            sha256Hmac.init(secretKey);
-
-            byte[] hashBytes = sha256Hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String generatedSignature = HexFormat.of().formatHex(hashBytes);
-
-            if (!generatedSignature.equals(dto.getRazorpaySignature())) {
+        boolean signatureValid;
 
-                payment.setPaymentStatus(PaymentStatus.FAILED);
-                paymentRepository.save(payment);
+        try {
+            signatureValid = signatureMatches(dto);
+        } catch (Exception e) {
+            recordFailure(payment);
+            throw new RuntimeException("Payment verification failed: " + e.getMessage());
+        }
 
-                orderClient.updatePaymentStatus(
-                        dto.getOrderId(),
-                        PaymentStatusUpdateRequestDto.builder()
-                                .paymentStatus(PaymentStatus.FAILED)
-                                .build()
-                );
+        if (!signatureValid) {
+            recordFailure(payment);
+            throw new RuntimeException("Payment verification failed: Payment signature verification failed");
+        }
 
-                throw new RuntimeException("Payment signature verification failed");
-            }
+        // ✅ Payment verified successfully.
+        // The order (and through it the stock) follows from the PAYMENT_PAID event committed with the
+        // payment row, so the response does not wait on order-service or product-service.
+        transactionTemplate.executeWithoutResult(status -> {
 
-            // ✅ Payment verified successfully
             payment.setRazorpayPaymentId(dto.getRazorpayPaymentId());
             payment.setRazorpaySignature(dto.getRazorpaySignature());
             payment.setPaymentStatus(PaymentStatus.PAID);
 
             paymentRepository.save(payment);
+            outboxEvents.enqueue(EventType.PAYMENT_PAID, payment.getOrderId());
+        });
 
-            orderClient.updatePaymentStatus(
-                    dto.getOrderId(),
-                    PaymentStatusUpdateRequestDto.builder()
-                            .paymentStatus(PaymentStatus.PAID)
-                            .build()
-            );
+        return "Payment verified successfully";
+    }
 
-            return "Payment verified successfully";
+    private boolean signatureMatches(PaymentVerifyRequestDto dto) throws GeneralSecurityException {
 
-        } catch (Exception e) {
+        String payload = dto.getRazorpayOrderId() + "|" + dto.getRazorpayPaymentId();
 
-            if (payment.getPaymentStatus() != PaymentStatus.PAID) {
+        Mac sha256Hmac = Mac.getInstance("HmacSHA256");
+        SecretKeySpec secretKey = new SecretKeySpec(
+                razorpayKeySecret.getBytes(StandardCharsets.UTF_8),
+                "HmacSHA256"
+        );
 
-                payment.setPaymentStatus(PaymentStatus.FAILED);
-                paymentRepository.save(payment);
+        sha256Hmac.init(secretKey);
 
-                orderClient.updatePaymentStatus(
-                        dto.getOrderId(),
-                        PaymentStatusUpdateRequestDto.builder()
-                                .paymentStatus(PaymentStatus.FAILED)
-                                .build()
-                );
-            }
+        byte[] hashBytes = sha256Hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        String generatedSignature = HexFormat.of().formatHex(hashBytes);
 
-            throw new RuntimeException("Payment verification failed: " + e.getMessage());
+        return generatedSignature.equals(dto.getRazorpaySignature());
+    }
+
+    // Committed before the caller's exception is thrown, so the failure sticks
+    private void recordFailure(Payment payment) {
+
+        // a repeated failed attempt must not announce the failure twice
+        if (payment.getPaymentStatus() == PaymentStatus.FAILED) {
+            return;
         }
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+
+            paymentRepository.save(payment);
+            outboxEvents.enqueue(EventType.PAYMENT_FAILED, payment.getOrderId());
+        });
     }
-}
\ No newline at end of file
+}
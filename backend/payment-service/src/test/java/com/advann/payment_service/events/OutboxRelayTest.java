@@ -0,0 +1,126 @@
+package com.advann.payment_service.events;
+
+import com.advann.payment_service.entity.OutboxEvent;
+import com.advann.payment_service.enums.EventType;
+import com.advann.payment_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OutboxRelayTest {
+
+    private static final String STREAM = "payment-events";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+
+        relay = new OutboxRelay(outboxEventRepository, redisTemplate, transactionManager);
+        ReflectionTestUtils.setField(relay, "stream", STREAM);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    }
+
+    @Test
+    void eventsAreAppendedInIdOrderBeforeTheyAreMarkedPublished() {
+
+        when(outboxEventRepository.lockUnpublished(2))
+                .thenReturn(List.of(event(1L, EventType.PAYMENT_PAID, 100L), event(2L, EventType.PAYMENT_FAILED, 101L)))
+                .thenReturn(List.of(event(3L, EventType.PAYMENT_PAID, 102L)));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> appended = ArgumentCaptor.forClass(Map.class);
+        var order = inOrder(streamOperations, outboxEventRepository);
+        order.verify(streamOperations, times(2)).add(eq(STREAM), appended.capture());
+        order.verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        // a full batch may have more behind it
+        order.verify(streamOperations).add(eq(STREAM), appended.capture());
+        order.verify(outboxEventRepository).markPublished(eq(List.of(3L)), any());
+
+        assertEquals(List.of("1", "2", "3"), appended.getAllValues().stream().map(event -> event.get("eventId")).toList());
+        assertEquals("PAYMENT_FAILED", appended.getAllValues().get(1).get("type"));
+        assertEquals("101", appended.getAllValues().get(1).get("aggregateId"));
+    }
+
+    @Test
+    void failedAppendLeavesTheBatchUnpublished() {
+
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(List.of(
+                event(1L, EventType.PAYMENT_PAID, 100L), event(2L, EventType.PAYMENT_PAID, 101L)));
+        when(streamOperations.add(eq(STREAM), anyMap()))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("redis down"));
+
+        relay.relay();
+
+        // the whole batch, including the event already appended, is published again on the next run
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        verify(outboxEventRepository, times(1)).lockUnpublished(2);
+    }
+
+    @Test
+    void cleanupDeletesPublishedRowsPastRetentionAndTrimsTheStream() {
+
+        ReflectionTestUtils.setField(relay, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(relay, "streamMaxLength", 1000L);
+
+        relay.cleanup();
+
+        ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).deletePublishedBefore(before.capture());
+        assertTrue(before.getValue().isBefore(LocalDateTime.now().minusDays(6)));
+        verify(streamOperations).trim(STREAM, 1000L, true);
+    }
+
+    private static OutboxEvent event(Long id, EventType type, Long orderId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType(type)
+                .aggregateId(orderId)
+                .createdAt(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .build();
+    }
+}
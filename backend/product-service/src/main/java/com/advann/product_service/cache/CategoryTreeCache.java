@@ -0,0 +1,183 @@
+package com.advann.product_service.cache;
+
+import com.advann.product_service.dto.CategoryResponseDto;
+import com.advann.product_service.dto.SubCategoryResponseDto;
+import com.advann.product_service.mapper.CategoryMapper;
+import com.advann.product_service.repository.CategoryRepository;
+import com.advann.product_service.repository.SubCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process snapshot of the whole category/subcategory tree.
+ * <p>
+ * The tree is read on every page render but rarely written, so it is loaded once into an
+ * immutable {@link Snapshot} and swapped atomically. Writes invalidate it after commit and
+ * broadcast the invalidation to the other replicas; the next read rebuilds it. The snapshot's
+ * ETag is a hash of its content, so every replica hands out the same tag for the same tree.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.cache.category-tree.channel:category-tree-changes}")
+    private String channel;
+
+    private final Object rebuildLock = new Object();
+
+    // Bumped on every invalidation; a rebuild that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Returned collections are immutable; the DTOs are shared across requests and must not be modified.
+     */
+    public record Snapshot(String etag,
+                           List<CategoryResponseDto> categories,
+                           Map<Long, CategoryResponseDto> categoriesById,
+                           List<SubCategoryResponseDto> subCategories,
+                           Map<Long, SubCategoryResponseDto> subCategoriesById,
+                           Map<Long, List<SubCategoryResponseDto>> subCategoriesByCategory) {
+    }
+
+    public Snapshot current() {
+
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (rebuildLock) {
+
+            if (snapshot != null) {
+                return snapshot;
+            }
+
+            long startGeneration = generation.get();
+            Snapshot rebuilt = load();
+
+            if (generation.get() == startGeneration) {
+                snapshot = rebuilt;
+            }
+
+            return rebuilt;
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Drops the snapshot on this and every other replica once the current transaction commits.
+     */
+    public void invalidate() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndPublish();
+                }
+            });
+        } else {
+            invalidateAndPublish();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidateLocal();
+    }
+
+    private void invalidateAndPublish() {
+
+        invalidateLocal();
+
+        try {
+            redisTemplate.convertAndSend(channel, "invalidate");
+        } catch (Exception e) {
+            log.warn("Failed to publish category tree invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void invalidateLocal() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+
+        List<CategoryResponseDto> categories = categoryRepository.findAll(Sort.by("id"))
+                .stream()
+                .map(categoryMapper::toResponseDto)
+                .toList();
+
+        List<SubCategoryResponseDto> subCategories = subCategoryRepository.findAllWithCategory()
+                .stream()
+                .map(categoryMapper::toResponseDto)
+                .toList();
+
+        Map<Long, CategoryResponseDto> categoriesById = new LinkedHashMap<>();
+        Map<Long, List<SubCategoryResponseDto>> subCategoriesByCategory = new LinkedHashMap<>();
+        StringBuilder content = new StringBuilder();
+
+        for (CategoryResponseDto category : categories) {
+            categoriesById.put(category.getId(), category);
+            subCategoriesByCategory.put(category.getId(), new ArrayList<>());
+            content.append('c').append(category.getId()).append(':').append(category.getName()).append('\n');
+        }
+
+        Map<Long, SubCategoryResponseDto> subCategoriesById = new LinkedHashMap<>();
+
+        for (SubCategoryResponseDto subCategory : subCategories) {
+            subCategoriesById.put(subCategory.getId(), subCategory);
+            subCategoriesByCategory
+                    .computeIfAbsent(subCategory.getCategoryId(), id -> new ArrayList<>())
+                    .add(subCategory);
+            content.append('s').append(subCategory.getId()).append(':').append(subCategory.getCategoryId())
+                    .append(':').append(subCategory.getName()).append('\n');
+        }
+
+        subCategoriesByCategory.replaceAll((categoryId, children) -> List.copyOf(children));
+
+        String etag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+
+        log.info("Category tree snapshot built: {} categories, {} subcategories, etag {}",
+                categories.size(), subCategories.size(), etag);
+
+        return new Snapshot(
+                etag,
+                categories,
+                Map.copyOf(categoriesById),
+                subCategories,
+                Map.copyOf(subCategoriesById),
+                Map.copyOf(subCategoriesByCategory)
+        );
+    }
+}
@@ -0,0 +1,128 @@
+package com.advann.product_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that puts an in-heap L1 in front of selected Redis caches.
+ * <p>
+ * Caches listed in {@code nearCacheNames} are served by a {@link TwoLevelCache}; all others
+ * are the plain Redis caches. Every cache is transaction aware, so evictions run after commit.
+ * Evictions are published on a Redis channel and applied to the L1 of every replica,
+ * which keeps scaled-out instances from serving stale prices.
+ */
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+    private static final String CLEAR_ALL = "*";
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remoteCacheManager;
+    private final Set<String> nearCacheNames;
+    private final long maxSize;
+    private final Duration ttl;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager remoteCacheManager,
+                            Set<String> nearCacheNames,
+                            long maxSize,
+                            Duration ttl,
+                            StringRedisTemplate redisTemplate,
+                            String channel) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.nearCacheNames = nearCacheNames;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+
+        if (!nearCacheNames.contains(name)) {
+            return new TransactionAwareCacheDecorator(remoteCache);
+        }
+
+        TwoLevelCache nearCache = new TwoLevelCache(
+                name,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .build(),
+                remoteCache,
+                this
+        );
+
+        nearCaches.put(name, nearCache);
+
+        log.info("Near cache enabled for '{}' (maxSize={}, ttl={})", name, maxSize, ttl);
+
+        return new TransactionAwareCacheDecorator(nearCache);
+    }
+
+    void publishEviction(String cacheName, String localKey) {
+
+        String payload = cacheName + SEPARATOR + (localKey == null ? CLEAR_ALL : localKey);
+
+        try {
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            // L1 entries still expire through their TTL if the broadcast is lost
+            log.warn("Failed to publish near cache eviction {}: {}", payload, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        int separatorIndex = payload.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            log.warn("Ignoring malformed near cache eviction: {}", payload);
+            return;
+        }
+
+        TwoLevelCache nearCache = nearCaches.get(payload.substring(0, separatorIndex));
+        if (nearCache == null) {
+            return;
+        }
+
+        String localKey = payload.substring(separatorIndex + 1);
+        nearCache.evictLocal(CLEAR_ALL.equals(localKey) ? null : localKey);
+    }
+}
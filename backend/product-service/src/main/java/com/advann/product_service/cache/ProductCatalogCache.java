@@ -0,0 +1,154 @@
+package com.advann.product_service.cache;
+
+import com.advann.product_service.dto.PagedResponseDto;
+import com.advann.product_service.dto.ProductResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cached entry points for the descriptive product catalog.
+ * <p>
+ * Kept as a separate bean so the service can overlay live stock on top of the cached
+ * result; the loader is only invoked on a cache miss.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    private static final String PRODUCTS_CACHE = "products";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+
+    @Cacheable(value = PRODUCTS_CACHE, key = "#id")
+    public ProductResponseDto getProduct(Long id, Supplier<ProductResponseDto> loader) {
+        return loader.get();
+    }
+
+    @Cacheable(value = ProductPageCache.CACHE_NAME, key = "#key")
+    public PagedResponseDto<ProductResponseDto> getPage(String key, Supplier<PagedResponseDto<ProductResponseDto>> loader) {
+        return loader.get();
+    }
+
+    /**
+     * Multi-get over the {@code products} cache: in-heap L1 first, then a single Redis MGET,
+     * then one loader call for whatever is still missing. Unknown ids are absent from the result.
+     */
+    public Map<Long, ProductResponseDto> getProducts(Collection<Long> ids,
+                                                     Function<Collection<Long>, List<ProductResponseDto>> loader) {
+
+        Map<Long, ProductResponseDto> products = new HashMap<>();
+        List<Long> missing = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        if (missing.isEmpty()) {
+            return products;
+        }
+
+        Cache cache = cacheManager.getCache(PRODUCTS_CACHE);
+        Cache remoteCache = cache instanceof TransactionAwareCacheDecorator decorator
+                ? decorator.getTargetCache()
+                : cache;
+
+        TwoLevelCache nearCache = remoteCache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+
+        if (nearCache != null) {
+            missing.removeIf(id -> collect(products, id, nearCache.getLocal(id)));
+            remoteCache = nearCache.getRemoteCache();
+        }
+
+        if (!missing.isEmpty() && remoteCache instanceof RedisCache redisCache) {
+            missing = multiGet(redisCache, missing, products, nearCache);
+        }
+
+        if (missing.isEmpty()) {
+            return products;
+        }
+
+        for (ProductResponseDto product : loader.apply(missing)) {
+            products.put(product.getId(), product);
+            if (cache != null) {
+                cache.put(product.getId(), product);
+            }
+        }
+
+        return products;
+    }
+
+    private List<Long> multiGet(RedisCache redisCache,
+                                List<Long> ids,
+                                Map<Long, ProductResponseDto> products,
+                                TwoLevelCache nearCache) {
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.getKeyPrefixFor(redisCache.getName());
+
+        byte[][] keys = new byte[ids.size()][];
+        for (int i = 0; i < ids.size(); i++) {
+            keys[i] = ByteUtils.getBytes(config.getKeySerializationPair().write(prefix + ids.get(i)));
+        }
+
+        long seenEvictions = nearCache != null ? nearCache.evictionCount() : 0;
+
+        List<byte[]> values;
+        try {
+            values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(keys));
+        } catch (Exception e) {
+            log.warn("Product cache unavailable, loading batch from DB: {}", e.getMessage());
+            return ids;
+        }
+
+        List<Long> missing = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+
+            byte[] value = values != null ? values.get(i) : null;
+            Object product = value != null
+                    ? config.getValueSerializationPair().read(ByteBuffer.wrap(value))
+                    : null;
+
+            if (collect(products, ids.get(i), product)) {
+                if (nearCache != null) {
+                    nearCache.putLocal(ids.get(i), product, seenEvictions);
+                }
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+
+        return missing;
+    }
+
+    private static boolean collect(Map<Long, ProductResponseDto> products, Long id, Object cached) {
+
+        if (cached instanceof ProductResponseDto product) {
+            products.put(id, product);
+            return true;
+        }
+
+        return false;
+    }
+}
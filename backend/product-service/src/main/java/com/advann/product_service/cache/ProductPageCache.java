@@ -0,0 +1,104 @@
+package com.advann.product_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Page-level cache for the product listing API.
+ * <p>
+ * Every cached page is keyed on the full query shape and prefixed with its category
+ * ({@code cat:{categoryId}:...} or {@code cat:all:...}), so a product write only drops
+ * the pages of the category it touches plus the unfiltered listing.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPageCache.class);
+
+    public static final String CACHE_NAME = "productPages";
+
+    private static final String ALL_CATEGORIES = "all";
+
+    private final CacheManager cacheManager;
+
+    public static String key(Long categoryId, int page, int size, String sortBy, String sortDir, String keyword) {
+        return categoryPrefix(categoryId) + page + ":" + queryShape(size, sortBy, sortDir, keyword);
+    }
+
+    // Only the first cursor window is cached; later ones are fetched by a single client and rarely repeat
+    public static String firstWindowKey(Long categoryId, int size, String sortBy, String sortDir, String keyword) {
+        return categoryPrefix(categoryId) + "cursor:first:" + queryShape(size, sortBy, sortDir, keyword);
+    }
+
+    private static String queryShape(int size, String sortBy, String sortDir, String keyword) {
+
+        String normalizedKeyword = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+
+        // no sortBy is its own shape: a keyword search is then ranked by relevance
+        String sort = sortBy == null ? "" : sortBy;
+
+        return size + ":" + sort + ":" + sortDir.toLowerCase(Locale.ROOT) + ":" + normalizedKeyword;
+    }
+
+    public void evictCategories(Long... categoryIds) {
+
+        Set<String> patterns = new LinkedHashSet<>();
+        patterns.add(categoryPrefix(null) + "*");
+
+        for (Long categoryId : categoryIds) {
+            if (categoryId != null) {
+                patterns.add(categoryPrefix(categoryId) + "*");
+            }
+        }
+
+        // Evict after commit so a concurrent read cannot re-cache the pre-commit rows
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictPatterns(patterns);
+                }
+            });
+        } else {
+            evictPatterns(patterns);
+        }
+    }
+
+    private void evictPatterns(Set<String> patterns) {
+
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+
+        if (!(cache instanceof RedisCache redisCache)) {
+            if (cache != null) {
+                cache.clear();
+            }
+            return;
+        }
+
+        for (String pattern : patterns) {
+            redisCache.clear(pattern);
+            log.debug("Evicted product pages matching: {}", pattern);
+        }
+    }
+
+    private static String categoryPrefix(Long categoryId) {
+        return "cat:" + (categoryId == null ? ALL_CATEGORIES : categoryId) + ":";
+    }
+}
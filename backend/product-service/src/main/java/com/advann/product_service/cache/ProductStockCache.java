@@ -0,0 +1,161 @@
+package com.advann.product_service.cache;
+
+import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.ProductStockView;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Availability cache holding only the stock level of each product.
+ * <p>
+ * Stock is kept out of the cached catalog data ({@code products}, {@code productPages}) and
+ * overlaid at read time, so checkout traffic only invalidates these small per-product entries
+ * and the descriptive catalog cache survives sale bursts.
+ * <p>
+ * Invalidation writes a unique tombstone rather than deleting the entry, and a reader only
+ * caches what it loaded if the entry is still what it saw before going to the DB. A read that
+ * raced a stock change therefore cannot put its pre-commit level back after the invalidation.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductStockCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStockCache.class);
+
+    private static final String KEY_PREFIX = "productStock::";
+
+    private static final String TOMBSTONE_PREFIX = "~";
+
+    // KEYS[1] = entry; ARGV = value seen before loading ('' = none), loaded level, ttl ms
+    private static final RedisScript<Long> CACHE_IF_UNCHANGED = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then return 0 end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository productRepository;
+
+    @Value("${app.cache.stock.ttl:60s}")
+    private Duration ttl;
+
+    public Integer getStock(Long productId) {
+        return getStocks(List.of(productId)).get(productId);
+    }
+
+    public Map<Long, Integer> getStocks(Collection<Long> productIds) {
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Map<Long, Integer> stocks = new HashMap<>();
+
+        if (ids.isEmpty()) {
+            return stocks;
+        }
+
+        // what each missing entry held before the DB read: nothing, or a tombstone
+        Map<Long, String> seen = new HashMap<>();
+        boolean cacheable = true;
+
+        try {
+            List<String> cached = redisTemplate.opsForValue()
+                    .multiGet(ids.stream().map(ProductStockCache::key).toList());
+
+            for (int i = 0; i < ids.size(); i++) {
+                String value = cached != null ? cached.get(i) : null;
+                if (value != null && !value.startsWith(TOMBSTONE_PREFIX)) {
+                    stocks.put(ids.get(i), Integer.valueOf(value));
+                } else {
+                    seen.put(ids.get(i), value != null ? value : "");
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Stock cache unavailable, reading stock from DB: {}", e.getMessage());
+            ids.forEach(id -> seen.put(id, ""));
+            cacheable = false;
+        }
+
+        if (seen.isEmpty()) {
+            return stocks;
+        }
+
+        Map<Long, Integer> loaded = new HashMap<>();
+
+        for (ProductStockView view : productRepository.findByIdIn(seen.keySet())) {
+            stocks.put(view.getId(), view.getStock());
+            loaded.put(view.getId(), view.getStock());
+        }
+
+        if (cacheable) {
+            cacheLoaded(loaded, seen);
+        }
+
+        return stocks;
+    }
+
+    /**
+     * Invalidates the cached stock of the given products once the current transaction commits.
+     * Invalidating instead of writing the new value keeps out-of-order commits from caching a stale level.
+     */
+    public void evict(Long... productIds) {
+
+        List<String> keys = new ArrayList<>();
+        for (Long productId : productIds) {
+            keys.add(key(productId));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(keys);
+                }
+            });
+        } else {
+            invalidate(keys);
+        }
+    }
+
+    private void cacheLoaded(Map<Long, Integer> loaded, Map<Long, String> seen) {
+
+        String ttlMillis = String.valueOf(ttl.toMillis());
+
+        try {
+            loaded.forEach((productId, stock) -> redisTemplate.execute(CACHE_IF_UNCHANGED,
+                    List.of(key(productId)), seen.get(productId), String.valueOf(stock), ttlMillis));
+        } catch (Exception e) {
+            log.warn("Failed to cache stock levels: {}", e.getMessage());
+        }
+    }
+
+    // A fresh tombstone per invalidation: any reader that loaded before it no longer matches
+    private void invalidate(List<String> keys) {
+        try {
+            String tombstone = TOMBSTONE_PREFIX + UUID.randomUUID();
+            keys.forEach(key -> redisTemplate.opsForValue().set(key, tombstone, ttl));
+        } catch (Exception e) {
+            // entries still expire through their TTL
+            log.warn("Failed to evict stock levels {}: {}", keys, e.getMessage());
+        }
+    }
+
+    private static String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+}
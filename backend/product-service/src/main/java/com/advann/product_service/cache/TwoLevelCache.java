@@ -0,0 +1,169 @@
+package com.advann.product_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache: a bounded in-heap L1 (Caffeine) in front of the shared Redis L2.
+ * <p>
+ * Reads are served from L1 when possible and back-filled from L2 on a miss.
+ * Evictions go to both levels and are broadcast to the other replicas through
+ * {@link NearCacheManager}, so their L1 copies are dropped as well.
+ * <p>
+ * An L2 read can return a value that is evicted before it reaches L1, e.g. when the
+ * broadcast arrives while the read is in flight. Every L1 fill therefore counts the
+ * evictions seen since its L2 read started and drops its own entry if there was one,
+ * rather than keeping the old value until the L1 TTL.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> localCache;
+    private final org.springframework.cache.Cache remoteCache;
+    private final NearCacheManager cacheManager;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TwoLevelCache(String name,
+                         Cache<String, Object> localCache,
+                         org.springframework.cache.Cache remoteCache,
+                         NearCacheManager cacheManager) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+
+        String localKey = localKey(key);
+
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return local;
+        }
+
+        long seenEvictions = evictions.get();
+
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote == null) {
+            return null;
+        }
+
+        Object storeValue = toStoreValue(remote.get());
+        fillLocal(localKey, storeValue, seenEvictions);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        long seenEvictions = evictions.get();
+
+        T value = remoteCache.get(key, valueLoader);
+        fillLocal(localKey(key), toStoreValue(value), seenEvictions);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(localKey(key), toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+
+        long seenEvictions = evictions.get();
+
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+
+        Object current = existing != null ? existing.get() : value;
+        fillLocal(localKey(key), toStoreValue(current), seenEvictions);
+
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        evictLocal(localKey(key));
+        cacheManager.publishEviction(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        evictLocal(localKey(key));
+        cacheManager.publishEviction(name, localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        evictLocal(null);
+        cacheManager.publishEviction(name, null);
+    }
+
+    // Bulk reads (ProductCatalogCache#getProducts) probe the levels separately;
+    // they take evictionCount() before reading L2 and hand it to putLocal
+    Object getLocal(Object key) {
+        return fromStoreValue(localCache.getIfPresent(localKey(key)));
+    }
+
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    void putLocal(Object key, Object value, long seenEvictions) {
+        fillLocal(localKey(key), toStoreValue(value), seenEvictions);
+    }
+
+    org.springframework.cache.Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    void evictLocal(String localKey) {
+        // counted before invalidating, so a fill that lands after the invalidation sees it
+        evictions.incrementAndGet();
+        if (localKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    // Put first, then check: an eviction either removes this entry or is seen here
+    private void fillLocal(String localKey, Object storeValue, long seenEvictions) {
+        localCache.put(localKey, storeValue);
+        if (evictions.get() != seenEvictions) {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
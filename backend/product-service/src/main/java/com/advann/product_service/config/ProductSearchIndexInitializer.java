@@ -0,0 +1,57 @@
+package com.advann.product_service.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the pg_trgm GIN index used by product search.
+ * <p>
+ * {@code ddl-auto: update} cannot create extensions or expression indexes, so this runs once
+ * the schema is in place. When the extension cannot be installed (no privileges, non-Postgres DB)
+ * search stays on the plain LIKE queries instead of failing startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.fuzzy-enabled:true}")
+    private boolean fuzzyEnabled;
+
+    private volatile boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndex() {
+
+        if (!fuzzyEnabled) {
+            log.info("Fuzzy product search disabled, using LIKE search");
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute(
+                    "CREATE INDEX IF NOT EXISTS idx_products_name_trgm " +
+                            "ON products USING gin (lower(name) gin_trgm_ops)");
+
+            available = true;
+            log.info("Product search index ready (pg_trgm)");
+
+        } catch (Exception e) {
+            log.warn("pg_trgm search index unavailable, falling back to LIKE search: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -1,21 +1,40 @@
 package com.advann.product_service.config;
 
+import com.advann.product_service.cache.CategoryTreeCache;
+import com.advann.product_service.cache.NearCacheManager;
+import com.advann.product_service.cache.ProductPageCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.cache.CacheManager;
 
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 public class RedisConfig {
 
+    @Value("${app.cache.near.max-size:10000}")
+    private long nearCacheMaxSize;
+
+    @Value("${app.cache.near.ttl:30s}")
+    private Duration nearCacheTtl;
+
+    @Value("${app.cache.near.channel:product-cache-evictions}")
+    private String nearCacheChannel;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public NearCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                         StringRedisTemplate stringRedisTemplate) {
 
         RedisCacheConfiguration config =
                 RedisCacheConfiguration.defaultCacheConfig()
@@ -25,9 +44,37 @@ public class RedisConfig {
                                         .fromSerializer(new GenericJackson2JsonRedisSerializer())
                         );
 
-        return RedisCacheManager.builder(connectionFactory)
+        // SCAN instead of KEYS so per-category page eviction never blocks Redis
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
-                .transactionAware()
+                .withCacheConfiguration(ProductPageCache.CACHE_NAME, config.entryTtl(Duration.ofMinutes(5)))
                 .build();
+
+        redisCacheManager.initializeCaches();
+
+        // products is read once per cart/order line item, so it gets an in-heap L1 in front of Redis
+        return new NearCacheManager(
+                redisCacheManager,
+                Set.of("products"),
+                nearCacheMaxSize,
+                nearCacheTtl,
+                stringRedisTemplate,
+                nearCacheChannel
+        );
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheEvictionListener(RedisConnectionFactory connectionFactory,
+                                                               NearCacheManager cacheManager,
+                                                               CategoryTreeCache categoryTreeCache) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(nearCacheChannel));
+        container.addMessageListener(categoryTreeCache, new ChannelTopic(categoryTreeCache.getChannel()));
+        return container;
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import com.advann.product_service.payload.ApiResponse;
 import com.advann.product_service.service.services.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,29 +37,39 @@ public class CategoryController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<CategoryResponseDto>>> getAllCategories() {
 
+        // ETag is read before the data, so a concurrent rebuild can only pair it with newer data.
+        // A matching If-None-Match is answered with 304 by Spring.
+        String etag = categoryService.getCategoryTreeEtag();
+
         List<CategoryResponseDto> categories = categoryService.getAllCategories();
 
-        return ResponseEntity.ok(
-                ApiResponse.<List<CategoryResponseDto>>builder()
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.<List<CategoryResponseDto>>builder()
                         .success(true)
                         .message("Categories fetched successfully")
                         .data(categories)
                         .build()
-        );
+                );
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryResponseDto>> getCategoryById(@PathVariable Long id) {
 
+        String etag = categoryService.getCategoryTreeEtag();
+
         CategoryResponseDto category = categoryService.getCategoryById(id);
 
-        return ResponseEntity.ok(
-                ApiResponse.<CategoryResponseDto>builder()
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.<CategoryResponseDto>builder()
                         .success(true)
                         .message("Category fetched successfully")
                         .data(category)
                         .build()
-        );
+                );
     }
 
     @DeleteMapping("/{id}")
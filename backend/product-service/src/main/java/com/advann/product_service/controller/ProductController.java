@@ -4,6 +4,7 @@ import com.advann.product_service.dto.PagedResponseDto;
 import com.advann.product_service.dto.ProductImageResponseDto;
 import com.advann.product_service.dto.ProductRequestDto;
 import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.dto.Versioned;
 import com.advann.product_service.payload.ApiResponse;
 import com.advann.product_service.service.services.ProductService;
 import com.advann.product_service.service.services.S3Service;
@@ -11,9 +12,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -48,7 +51,10 @@ public class ProductController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get All Products", description = "Fetch all products from database")
+    @Operation(summary = "Get All Products", description = "Fetch all products from database, sorted by id " +
+            "unless sortBy is given. A keyword search without sortBy is ranked by relevance instead. " +
+            "Pass cursor (empty for the first page, then the returned nextCursor) to switch to keyset " +
+            "pagination, which skips the total count; sortBy must then be id, name or price")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products fetched successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
@@ -57,44 +63,61 @@ public class ProductController {
     public ResponseEntity<ApiResponse<PagedResponseDto<ProductResponseDto>>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) Long categoryId
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest
     ) {
 
+        Versioned<PagedResponseDto<ProductResponseDto>> products = cursor != null
+                ? productService.getProductsByCursor(cursor, size, sortBy, sortDir, keyword, categoryId)
+                : productService.getAllProducts(page, size, sortBy, sortDir, keyword, categoryId);
 
-        PagedResponseDto<ProductResponseDto> responseDto =
-                productService.getAllProducts(page, size, sortBy, sortDir, keyword, categoryId);
+        // 304 before the page DTO is built or serialized
+        if (webRequest.checkNotModified(products.etag())) {
+            return null;
+        }
 
-
-        return ResponseEntity.ok(
-                ApiResponse.<PagedResponseDto<ProductResponseDto>>builder()
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.<PagedResponseDto<ProductResponseDto>>builder()
                         .success(true)
                         .message("Products fetched successfully")
-                        .data(responseDto)
+                        .data(products.body().get())
                         .build()
-        );
+                );
     }
 
-    @Operation(summary = "Get Product By Id", description = "Fetch a product using product id")
+    @Operation(summary = "Get Product By Id", description = "Fetch a product using product id. " +
+            "Responses carry an ETag; send it back as If-None-Match to get 304 when unchanged")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product fetched successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Product not modified"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<ProductResponseDto>> getProductById(@PathVariable Long id,
+                                                                          WebRequest webRequest) {
 
-        ProductResponseDto product = productService.getProductById(id);
+        Versioned<ProductResponseDto> product = productService.getProductById(id);
+
+        // checkNotModified also sets the ETag header on the 200 response
+        if (product.etag() != null && webRequest.checkNotModified(product.etag())) {
+            return null;
+        }
 
         ApiResponse<ProductResponseDto> response = ApiResponse.<ProductResponseDto>builder()
                 .success(true)
                 .message("Product fetched successfully")
-                .data(product)
+                .data(product.body().get())
                 .build();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @Operation(summary = "Update Product", description = "Update an existing product using id")
@@ -121,6 +144,29 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Toggle Hot Inventory", description = "Admit reservations on Redis counters for a flash sale, writing stock back in batches")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hot inventory mode updated"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PutMapping("/{id}/hot-inventory")
+    public ResponseEntity<ApiResponse<String>> setHotInventory(
+            @PathVariable Long id,
+            @RequestParam boolean enabled
+    ) {
+
+        productService.setHotInventory(id, enabled);
+
+        ApiResponse<String> response = ApiResponse.<String>builder()
+                .success(true)
+                .message("Hot inventory mode updated successfully")
+                .data("Hot inventory " + (enabled ? "enabled" : "disabled") + " for product id : " + id)
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Delete Product", description = "Delete product using id")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product deleted successfully"),
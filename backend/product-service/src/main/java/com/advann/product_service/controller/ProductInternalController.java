@@ -1,42 +1,65 @@
 package com.advann.product_service.controller;
 
+import com.advann.product_service.dto.ProductSummaryDto;
+import com.advann.product_service.dto.StockBatchRequestDto;
+import com.advann.product_service.dto.StockBatchResultDto;
+import com.advann.product_service.dto.StockReservationResponseDto;
 import com.advann.product_service.payload.ApiResponse;
 import com.advann.product_service.service.services.ProductService;
+import com.advann.product_service.service.services.StockReservationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/internal/products")
 @RequiredArgsConstructor
 public class ProductInternalController {
 
     private final ProductService productService;
+    private final StockReservationService stockReservationService;
 
-    @PostMapping("/{productId}/reserve")
-    public ResponseEntity<ApiResponse<Void>> reserveStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
+    // One round trip for a whole cart/order instead of one GET per line item
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<Map<Long, ProductSummaryDto>>> getProductsByIds(
+            @RequestBody List<Long> ids
     ) {
-        productService.reserveStock(productId, quantity);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Stock reserved successfully", null));
+        Map<Long, ProductSummaryDto> products = productService.getProductSummaries(ids);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Products fetched successfully", products));
     }
 
-    @PostMapping("/{productId}/confirm")
-    public ResponseEntity<ApiResponse<Void>> confirmStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
+    // Stock is only ever reserved for an order, through the ledger: all line items in one call and one
+    // transaction. Every call is idempotent per order; a rejected call changes nothing and answers 409 with per-line results.
+    @PostMapping("/reservations/{orderId}")
+    public ResponseEntity<ApiResponse<StockBatchResultDto>> reserveStockForOrder(
+            @PathVariable Long orderId,
+            @Valid @RequestBody StockBatchRequestDto request
     ) {
-        productService.confirmStock(productId, quantity);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Stock confirmed successfully", null));
+        StockBatchResultDto result = stockReservationService.reserve(orderId, request.getItems());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stock reserved successfully", result));
+    }
+
+    @PostMapping("/reservations/{orderId}/confirm")
+    public ResponseEntity<ApiResponse<StockBatchResultDto>> confirmStockForOrder(@PathVariable Long orderId) {
+        StockBatchResultDto result = stockReservationService.confirm(orderId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stock confirmed successfully", result));
+    }
+
+    @PostMapping("/reservations/{orderId}/release")
+    public ResponseEntity<ApiResponse<StockBatchResultDto>> releaseStockForOrder(@PathVariable Long orderId) {
+        StockBatchResultDto result = stockReservationService.release(orderId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stock released successfully", result));
     }
 
-    @PostMapping("/{productId}/release")
-    public ResponseEntity<ApiResponse<Void>> releaseStock(
-            @PathVariable Long productId,
-            @RequestParam Integer quantity
+    @GetMapping("/reservations/{orderId}")
+    public ResponseEntity<ApiResponse<List<StockReservationResponseDto>>> getReservationsForOrder(
+            @PathVariable Long orderId
     ) {
-        productService.releaseStock(productId, quantity);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Stock released successfully", null));
+        List<StockReservationResponseDto> reservations = stockReservationService.getReservations(orderId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stock reservations fetched successfully", reservations));
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,12 @@ package com.advann.product_service.controller;
 import com.advann.product_service.dto.SubCategoryRequestDto;
 import com.advann.product_service.dto.SubCategoryResponseDto;
 import com.advann.product_service.payload.ApiResponse;
+import com.advann.product_service.service.services.CategoryService;
 import com.advann.product_service.service.services.SubCategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +21,7 @@ import java.util.List;
 public class SubCategoryController {
 
     private final SubCategoryService subCategoryService;
+    private final CategoryService categoryService;
 
     @Operation(summary = "Create SubCategory", description = "Creates a new subcategory under a category")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
@@ -42,7 +45,7 @@ public class SubCategoryController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get All SubCategories", description = "Fetch all subcategories from database")
+    @Operation(summary = "Get All SubCategories", description = "Fetch all subcategories from the in-memory category tree; supports If-None-Match revalidation")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "SubCategories fetched successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
@@ -50,6 +53,9 @@ public class SubCategoryController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<SubCategoryResponseDto>>> getAllSubCategories() {
 
+        // Tree ETag first, see CategoryController#getAllCategories
+        String etag = categoryService.getCategoryTreeEtag();
+
         List<SubCategoryResponseDto> subCategories = subCategoryService.getAllSubCategories();
 
         ApiResponse<List<SubCategoryResponseDto>> response = ApiResponse.<List<SubCategoryResponseDto>>builder()
@@ -58,7 +64,10 @@ public class SubCategoryController {
                 .data(subCategories)
                 .build();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @Operation(summary = "Get SubCategories By Category", description = "Fetch subcategories using category id")
@@ -72,6 +81,8 @@ public class SubCategoryController {
             @PathVariable Long categoryId
     ) {
 
+        String etag = categoryService.getCategoryTreeEtag();
+
         List<SubCategoryResponseDto> subCategories =
                 subCategoryService.getSubCategoriesByCategory(categoryId);
 
@@ -81,7 +92,10 @@ public class SubCategoryController {
                 .data(subCategories)
                 .build();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @Operation(summary = "Get SubCategory By Id", description = "Fetch subcategory using subcategory id")
@@ -95,6 +109,8 @@ public class SubCategoryController {
             @PathVariable Long id
     ) {
 
+        String etag = categoryService.getCategoryTreeEtag();
+
         SubCategoryResponseDto subCategory = subCategoryService.getSubCategoryById(id);
 
         ApiResponse<SubCategoryResponseDto> response = ApiResponse.<SubCategoryResponseDto>builder()
@@ -103,7 +119,10 @@ public class SubCategoryController {
                 .data(subCategory)
                 .build();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @Operation(summary = "Delete SubCategory", description = "Delete subcategory using subcategory id")
@@ -2,18 +2,25 @@ package com.advann.product_service.dto;
 
 import lombok.*;
 
+import java.io.Serializable;
 import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-public class PagedResponseDto<T> {
+@Builder(toBuilder = true)
+public class PagedResponseDto<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+
+    // null in cursor mode, which skips the count query
+    private Long totalElements;
+    private Integer totalPages;
     private boolean last;
+
+    // cursor mode only: opaque position of the next page, null on the last page
+    private String nextCursor;
 }
\ No newline at end of file
@@ -7,7 +7,7 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductResponseDto implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -21,4 +21,5 @@ public class ProductResponseDto implements Serializable {
     private String categoryName;
     private Long subCategoryId;
     private String subCategoryName;
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.advann.product_service.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Compact product view for service-to-service batch lookups
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSummaryDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private String imageUrl;
+}
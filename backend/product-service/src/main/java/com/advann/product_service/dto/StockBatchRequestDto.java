@@ -0,0 +1,21 @@
+package com.advann.product_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// All line items of one order, applied all-or-nothing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchRequestDto {
+
+    @NotEmpty(message = "At least one line item is required")
+    private List<@Valid StockLineDto> items;
+}
@@ -0,0 +1,19 @@
+package com.advann.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// applied = every line succeeded and was committed; otherwise nothing was changed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchResultDto {
+
+    private boolean applied;
+    private List<StockLineResultDto> lines;
+}
@@ -0,0 +1,23 @@
+package com.advann.product_service.dto;
+
+import com.advann.product_service.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponseDto {
+
+    private Long orderId;
+    private Long productId;
+    private Integer quantity;
+    private ReservationStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,12 @@
+package com.advann.product_service.dto;
+
+import java.util.function.Supplier;
+
+/**
+ * A response body together with its validator.
+ * <p>
+ * The ETag is computed up front from cached data; the body is only assembled when the
+ * client's copy is out of date, so 304 responses skip DTO building and serialization.
+ */
+public record Versioned<T>(String etag, Supplier<T> body) {
+}
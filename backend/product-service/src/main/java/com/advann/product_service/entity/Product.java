@@ -10,7 +10,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                // keyset (cursor) pagination seeks: sort key + id tie-breaker
+                @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+                @Index(name = "idx_products_price_id", columnList = "price, id"),
+                @Index(name = "idx_products_name_id", columnList = "name, id"),
+                @Index(name = "idx_products_category_price_id", columnList = "category_id, price, id")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,4 +64,8 @@ public class Product {
 
     @Column(nullable = false)
     private Integer reservedStock = 0;
+
+    // Flash-sale mode: admission runs on Redis counters, stock columns are written behind in batches
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean hotInventory;
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.advann.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per order that ever reserved or released stock. Reserve and release lock it, so they
+// never interleave for the same order; once released it is a tombstone no later reserve gets past.
+@Entity
+@Table(name = "stock_reservation_orders")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(nullable = false)
+    private boolean released;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.advann.product_service.enums;
+
+public enum ReservationStatus {
+    RESERVED,       // units moved from stock to reservedStock for the order
+    CONFIRMED,      // order paid, reserved units are sold
+    RELEASED        // order cancelled or failed, units returned to stock
+}
@@ -0,0 +1,169 @@
+package com.advann.product_service.events;
+
+import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.exceptions.StockBatchRejectedException;
+import com.advann.product_service.service.services.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settles stock reservations from order-service's events: ORDER_CONFIRMED turns an order's
+ * reservation into a sale, ORDER_CANCELLED puts the stock back. Other order events are skipped.
+ * <p>
+ * Each event is handled by one instance of the {@code product-service} group and acknowledged
+ * once the reservation ledger has committed. An event for an order with no ledger rows, or one
+ * already settled the other way, is dropped. A failed event stays pending and is reclaimed after
+ * {@code redelivery-after}, up to {@code max-deliveries} times. A replay finds the order
+ * settled and changes nothing.
+ */
+@Component
+public class OrderEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventConsumer.class);
+
+    private static final String GROUP = "product-service";
+
+    private final StockReservationService stockReservationService;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.events.order-stream:order-events}")
+    private String stream;
+
+    @Value("${app.events.consumer-name:${HOSTNAME:product-service}}")
+    private String consumerName;
+
+    @Value("${app.events.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.events.redelivery-after:30s}")
+    private Duration redeliveryAfter;
+
+    @Value("${app.events.max-deliveries:10}")
+    private int maxDeliveries;
+
+    private volatile boolean groupReady;
+
+    public OrderEventConsumer(StockReservationService stockReservationService, StringRedisTemplate redisTemplate) {
+        this.stockReservationService = stockReservationService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval-ms:200}")
+    public void poll() {
+
+        try {
+            ensureGroup();
+
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(stream, ReadOffset.lastConsumed()));
+
+            if (records != null) {
+                records.forEach(this::handle);
+            }
+
+            redeliverStale();
+
+        } catch (Exception e) {
+            // the group may be gone with a flushed Redis; recreate it on the next run
+            groupReady = false;
+            log.warn("Order event poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void handle(MapRecord<String, Object, Object> record) {
+
+        Map<Object, Object> event = record.getValue();
+
+        try {
+            Long orderId = Long.valueOf(String.valueOf(event.get("aggregateId")));
+            String type = String.valueOf(event.get("type"));
+
+            switch (type) {
+                case "ORDER_CONFIRMED" -> stockReservationService.confirm(orderId);
+                case "ORDER_CANCELLED" -> stockReservationService.release(orderId);
+                default -> log.debug("Ignoring order event {} of type {}", record.getId(), type);
+            }
+
+            acknowledge(record.getId());
+
+        } catch (ResourceNotFoundException | StockBatchRejectedException e) {
+            // retrying cannot help: no ledger rows (orders placed before it) or already settled the other way
+            log.error("Dropping order event {} {}: {}", record.getId(), event, e.getMessage());
+            acknowledge(record.getId());
+
+        } catch (Exception e) {
+            log.warn("Order event {} failed, will be redelivered: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    private void redeliverStale() {
+
+        for (PendingMessage message : redisTemplate.opsForStream().pending(stream, GROUP, Range.unbounded(), batchSize)) {
+
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(redeliveryAfter) < 0) {
+                continue;
+            }
+
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                log.error("Giving up on order event {} after {} deliveries",
+                        message.getIdAsString(), message.getTotalDeliveryCount());
+                acknowledge(message.getId());
+                continue;
+            }
+
+            // Redis re-checks the idle time, so two instances never both take the same event
+            redisTemplate.opsForStream()
+                    .claim(stream, GROUP, consumerName, redeliveryAfter, message.getId())
+                    .forEach(this::handle);
+        }
+    }
+
+    private void acknowledge(RecordId id) {
+        redisTemplate.opsForStream().acknowledge(stream, GROUP, id);
+    }
+
+    // MKSTREAM: the group can be created before order-service has published anything
+    private void ensureGroup() {
+
+        if (groupReady) {
+            return;
+        }
+
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> createGroup(connection));
+        } catch (DataAccessException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+
+        groupReady = true;
+    }
+
+    private String createGroup(RedisConnection connection) {
+        return connection.streamCommands().xGroupCreate(
+                stream.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true);
+    }
+}
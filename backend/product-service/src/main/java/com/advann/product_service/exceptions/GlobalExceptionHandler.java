@@ -1,5 +1,6 @@
 package com.advann.product_service.exceptions;
 
+import com.advann.product_service.dto.StockBatchResultDto;
 import com.advann.product_service.payload.ApiResponse;
 import com.advann.product_service.payload.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +49,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIllegalArgument(IllegalArgumentException ex) {
+
+        ApiResponse<Object> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .data(null)
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception ex) {
         log.error("Internal Server Error occurred: ", ex);
@@ -119,4 +132,16 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(StockBatchRejectedException.class)
+    public ResponseEntity<ApiResponse<StockBatchResultDto>> handleStockBatchRejected(StockBatchRejectedException ex) {
+
+        ApiResponse<StockBatchResultDto> response = ApiResponse.<StockBatchResultDto>builder()
+                .success(false)
+                .message(ex.getMessage())
+                .data(ex.getResult())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
 }
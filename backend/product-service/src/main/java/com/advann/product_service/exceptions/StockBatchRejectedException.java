@@ -0,0 +1,18 @@
+package com.advann.product_service.exceptions;
+
+import com.advann.product_service.dto.StockBatchResultDto;
+
+// Thrown inside the batch transaction so it rolls back; carries the per-line results
+public class StockBatchRejectedException extends RuntimeException {
+
+    private final StockBatchResultDto result;
+
+    public StockBatchRejectedException(StockBatchResultDto result) {
+        super("Stock batch rejected, no line was applied");
+        this.result = result;
+    }
+
+    public StockBatchResultDto getResult() {
+        return result;
+    }
+}
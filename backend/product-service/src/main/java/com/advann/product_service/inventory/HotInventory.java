@@ -0,0 +1,236 @@
+package com.advann.product_service.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-side stock counters for products in flash-sale ("hot inventory") mode.
+ * <p>
+ * Each hot product has one hash holding its live {@code stock}/{@code reservedStock} plus the
+ * deltas not yet written to Postgres ({@code pendingStock}/{@code pendingReservedStock}). Every
+ * reserve, confirm and release is one atomic script on that hash, so admission never touches
+ * the {@code products} row; {@link HotInventoryWriteBehind} drains the pending deltas in batches.
+ * Keeping the pending deltas in Redis rather than in the JVM means a crashed instance loses nothing.
+ * <p>
+ * Whether a product is hot is decided by Redis alone, inside the same script that admits: a
+ * product is on the counters exactly while its hash exists, from {@link #enable} until the
+ * write-behind deletes it with nothing left pending. So every instance routes a product the
+ * same way at the same moment, and the database is never admitting against levels that lag
+ * behind the counters.
+ */
+@Component
+public class HotInventory {
+
+    public static final int NOT_HOT = -1;
+
+    private static final Logger log = LoggerFactory.getLogger(HotInventory.class);
+
+    private static final String KEY_PREFIX = "inventory:hot::";
+    private static final String HOT_PRODUCTS_KEY = "inventory:hot-products";
+    private static final String RETIRING_PRODUCTS_KEY = "inventory:hot-retiring";
+    private static final String FLUSH_LOCK_KEY = "inventory:hot-flush-lock";
+
+    // KEYS[1] = counters; ARGV = stock delta, reserved delta, pending stock delta, pending reserved delta,
+    // guard field ('' for none), guard amount. Returns -1 if the product is not hot, 0 if the guard fails.
+    private static final RedisScript<Long> ADJUST = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            if ARGV[5] ~= '' and tonumber(redis.call('HGET', KEYS[1], ARGV[5])) < tonumber(ARGV[6]) then return 0 end
+            redis.call('HINCRBY', KEYS[1], 'stock', ARGV[1])
+            redis.call('HINCRBY', KEYS[1], 'reservedStock', ARGV[2])
+            redis.call('HINCRBY', KEYS[1], 'pendingStock', ARGV[3])
+            redis.call('HINCRBY', KEYS[1], 'pendingReservedStock', ARGV[4])
+            return 1
+            """, Long.class);
+
+    // Seeds the counters from the database levels unless they already exist (re-enable before retirement)
+    private static final RedisScript<Long> SEED = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('HSET', KEYS[1], 'stock', ARGV[1], 'reservedStock', ARGV[2],
+                       'pendingStock', 0, 'pendingReservedStock', 0)
+            return 1
+            """, Long.class);
+
+    // Takes the pending deltas and zeroes them; the counters returned are consistent with the deltas taken
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return {} end
+            local values = redis.call('HMGET', KEYS[1], 'stock', 'reservedStock', 'pendingStock', 'pendingReservedStock')
+            redis.call('HSET', KEYS[1], 'pendingStock', 0, 'pendingReservedStock', 0)
+            return {tonumber(values[1]), tonumber(values[2]), tonumber(values[3]), tonumber(values[4])}
+            """, List.class);
+
+    // Deletes retired counters once nothing is left to write behind
+    private static final RedisScript<Long> DELETE_IF_FLUSHED = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 1 end
+            if tonumber(redis.call('HGET', KEYS[1], 'pendingStock')) ~= 0
+               or tonumber(redis.call('HGET', KEYS[1], 'pendingReservedStock')) ~= 0 then return 0 end
+            redis.call('DEL', KEYS[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    public HotInventory(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Counter transitions mirroring the guarded UPDATEs of {@code ProductRepository}: 1 = applied,
+     * 0 = guard failed, {@link #NOT_HOT} = no counters, so the product is not hot for any instance
+     * and the caller uses the database. Inside a transaction the change is undone if that
+     * transaction does not commit.
+     */
+    public int reserve(Long productId, int quantity) {
+        return adjust(productId, -quantity, quantity, "stock", quantity);
+    }
+
+    public int confirm(Long productId, int quantity) {
+        return adjust(productId, 0, -quantity, "reservedStock", quantity);
+    }
+
+    public int release(Long productId, int quantity) {
+        return adjust(productId, quantity, -quantity, "reservedStock", quantity);
+    }
+
+    public void enable(Long productId, int stock, int reservedStock) {
+
+        redisTemplate.execute(SEED, List.of(key(productId)), String.valueOf(stock), String.valueOf(reservedStock));
+        redisTemplate.opsForSet().remove(RETIRING_PRODUCTS_KEY, productId.toString());
+        redisTemplate.opsForSet().add(HOT_PRODUCTS_KEY, productId.toString());
+    }
+
+    // Admission stays on the counters until the write-behind has flushed their last deltas and deleted them
+    public void retire(Long productId) {
+        redisTemplate.opsForSet().remove(HOT_PRODUCTS_KEY, productId.toString());
+        redisTemplate.opsForSet().add(RETIRING_PRODUCTS_KEY, productId.toString());
+    }
+
+    Set<Long> hotProducts() {
+        return members(HOT_PRODUCTS_KEY);
+    }
+
+    Set<Long> retiringProducts() {
+        return members(RETIRING_PRODUCTS_KEY);
+    }
+
+    boolean deleteIfFlushed(Long productId) {
+
+        boolean deleted = Long.valueOf(1).equals(
+                redisTemplate.execute(DELETE_IF_FLUSHED, List.of(key(productId))));
+
+        if (deleted) {
+            redisTemplate.opsForSet().remove(RETIRING_PRODUCTS_KEY, productId.toString());
+        }
+
+        return deleted;
+    }
+
+    // null = the counters are gone (Redis restarted or the product was retired)
+    Snapshot drain(Long productId) {
+
+        List<?> values = redisTemplate.execute(DRAIN, List.of(key(productId)));
+
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        return new Snapshot(
+                ((Number) values.get(0)).longValue(),
+                ((Number) values.get(1)).longValue(),
+                ((Number) values.get(2)).longValue(),
+                ((Number) values.get(3)).longValue());
+    }
+
+    // Puts drained deltas back when writing them to the database failed
+    void restorePending(Long productId, long stockDelta, long reservedDelta) {
+        execute(productId, 0, 0, stockDelta, reservedDelta, "", 0);
+    }
+
+    // Reconciliation: moves the live counters without creating anything to write behind
+    void correct(Long productId, long stockDrift, long reservedDrift) {
+        execute(productId, stockDrift, reservedDrift, 0, 0, "", 0);
+    }
+
+    boolean tryLock(Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, lockOwner, ttl));
+    }
+
+    void unlock() {
+        redisTemplate.execute(UNLOCK, List.of(FLUSH_LOCK_KEY), lockOwner);
+    }
+
+    private int adjust(Long productId, long stockDelta, long reservedDelta, String guardField, long guardAmount) {
+
+        int result = execute(productId, stockDelta, reservedDelta, stockDelta, reservedDelta, guardField, guardAmount);
+
+        if (result == 1 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo(productId, -stockDelta, -reservedDelta);
+                    }
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private void undo(Long productId, long stockDelta, long reservedDelta) {
+        try {
+            execute(productId, stockDelta, reservedDelta, stockDelta, reservedDelta, "", 0);
+        } catch (Exception e) {
+            // the reconciliation in the write-behind will see the difference against the database
+            log.error("Failed to undo hot inventory change for product {}", productId, e);
+        }
+    }
+
+    private int execute(Long productId, long stockDelta, long reservedDelta,
+                        long pendingStockDelta, long pendingReservedDelta,
+                        String guardField, long guardAmount) {
+
+        Long result = redisTemplate.execute(ADJUST, List.of(key(productId)),
+                String.valueOf(stockDelta), String.valueOf(reservedDelta),
+                String.valueOf(pendingStockDelta), String.valueOf(pendingReservedDelta),
+                guardField, String.valueOf(guardAmount));
+
+        return result == null ? NOT_HOT : result.intValue();
+    }
+
+    private Set<Long> members(String setKey) {
+
+        Set<String> members = redisTemplate.opsForSet().members(setKey);
+
+        return members == null ? Set.of() : members.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+
+    // Live counters plus the deltas drained with them; counters - deltas = what the database should hold before applying
+    record Snapshot(long stock, long reservedStock, long pendingStock, long pendingReservedStock) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.advann.product_service.inventory;
+
+import com.advann.product_service.cache.ProductStockCache;
+import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.ProductStockView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Writes the hot inventory deltas behind to Postgres and reconciles the two sides.
+ * <p>
+ * Each run (one instance at a time, under a Redis lock) drains every hot product's pending
+ * deltas together with its counters, applies them in one UPDATE and compares the resulting
+ * {@code stock}/{@code reservedStock} columns against the counters. A difference can only come
+ * from writes that bypassed the counters (stock edits, database admissions that committed
+ * between reading the levels and seeding the counters); the database is taken as truth and the counters are moved by the
+ * difference, so the two sides never drift for longer than one run. Deltas that would take the
+ * database below zero are not written; they stay pending and are reported until the levels
+ * allow them.
+ */
+@Component
+public class HotInventoryWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(HotInventoryWriteBehind.class);
+
+    private final HotInventory hotInventory;
+    private final ProductRepository productRepository;
+    private final ProductStockCache productStockCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.hot.flush-lock-ttl:30s}")
+    private Duration flushLockTtl;
+
+    public HotInventoryWriteBehind(HotInventory hotInventory,
+                                   ProductRepository productRepository,
+                                   ProductStockCache productStockCache,
+                                   PlatformTransactionManager transactionManager) {
+        this.hotInventory = hotInventory;
+        this.productRepository = productRepository;
+        this.productStockCache = productStockCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot.flush-interval-ms:500}")
+    public void flush() {
+
+        try {
+            Set<Long> hot = hotInventory.hotProducts();
+            Set<Long> retiring = hotInventory.retiringProducts();
+
+            if ((hot.isEmpty() && retiring.isEmpty()) || !hotInventory.tryLock(flushLockTtl)) {
+                return;
+            }
+
+            try {
+                hot.forEach(productId -> flushSafely(productId, this::flushProduct));
+                retiring.forEach(productId -> flushSafely(productId, this::retire));
+            } finally {
+                hotInventory.unlock();
+            }
+        } catch (Exception e) {
+            // counters keep their pending deltas, the next run picks them up
+            log.warn("Hot inventory write-behind failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Slower sweep for what the per-run check cannot see: products flagged hot in the database
+     * whose counters are missing from Redis, and counters left over for products no longer hot.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot.reconcile-interval-ms:60000}")
+    public void reconcile() {
+
+        try {
+            Set<Long> flagged = new HashSet<>(productRepository.findHotInventoryIds());
+            Set<Long> hot = hotInventory.hotProducts();
+
+            for (Long productId : flagged) {
+                if (!hot.contains(productId)) {
+                    log.warn("Hot inventory counters missing for product {}, seeding from the database", productId);
+                    seed(productId);
+                }
+            }
+
+            for (Long productId : hot) {
+                if (!flagged.contains(productId)) {
+                    log.warn("Hot inventory counters left for product {} which is not hot, retiring", productId);
+                    hotInventory.retire(productId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Hot inventory reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    void flushProduct(Long productId) {
+
+        HotInventory.Snapshot snapshot = hotInventory.drain(productId);
+
+        if (snapshot == null) {
+            // Counters lost (Redis restart): nothing pending survived, start again from the database
+            seed(productId);
+            return;
+        }
+
+        Optional<ProductStockView> levels;
+
+        try {
+            levels = transactionTemplate.execute(status -> {
+                applyPending(productId, snapshot);
+                return productRepository.findByIdIn(List.of(productId)).stream().findFirst();
+            });
+        } catch (RuntimeException e) {
+            hotInventory.restorePending(productId, snapshot.pendingStock(), snapshot.pendingReservedStock());
+            throw e;
+        }
+
+        if (levels == null || levels.isEmpty()) {
+            // product deleted while hot
+            hotInventory.retire(productId);
+            return;
+        }
+
+        if (snapshot.pendingStock() != 0 || snapshot.pendingReservedStock() != 0) {
+            productStockCache.evict(productId);
+        }
+
+        long stockDrift = levels.get().getStock() - snapshot.stock();
+        long reservedDrift = levels.get().getReservedStock() - snapshot.reservedStock();
+
+        if (stockDrift != 0 || reservedDrift != 0) {
+            log.warn("Hot inventory drift for product {}: stock {}, reservedStock {}; correcting counters",
+                    productId, stockDrift, reservedDrift);
+            hotInventory.correct(productId, stockDrift, reservedDrift);
+        }
+    }
+
+    private void retire(Long productId) {
+
+        HotInventory.Snapshot snapshot = hotInventory.drain(productId);
+
+        if (snapshot != null && (snapshot.pendingStock() != 0 || snapshot.pendingReservedStock() != 0)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyPending(productId, snapshot));
+            } catch (RuntimeException e) {
+                hotInventory.restorePending(productId, snapshot.pendingStock(), snapshot.pendingReservedStock());
+                throw e;
+            }
+            productStockCache.evict(productId);
+        }
+
+        // admissions since the drain keep the counters, and the product on them, until the next run
+        hotInventory.deleteIfFlushed(productId);
+    }
+
+    // A deleted product takes nothing; an existing one refusing the deltas means the two sides disagree
+    private void applyPending(Long productId, HotInventory.Snapshot snapshot) {
+
+        if (snapshot.pendingStock() == 0 && snapshot.pendingReservedStock() == 0) {
+            return;
+        }
+
+        if (productRepository.applyStockDelta(productId, snapshot.pendingStock(), snapshot.pendingReservedStock()) == 0
+                && productRepository.existsById(productId)) {
+            throw new IllegalStateException("Hot inventory deltas for product " + productId
+                    + " would take its stock below zero");
+        }
+    }
+
+    // One product failing does not hold up the others
+    private void flushSafely(Long productId, Consumer<Long> flush) {
+        try {
+            flush.accept(productId);
+        } catch (Exception e) {
+            log.warn("Hot inventory write-behind failed for product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    // Starts hot mode from the committed database levels; a no-op if the counters already exist
+    public void seed(Long productId) {
+        productRepository.findByIdIn(List.of(productId)).stream().findFirst().ifPresent(levels ->
+                hotInventory.enable(productId, levels.getStock(), levels.getReservedStock()));
+    }
+}
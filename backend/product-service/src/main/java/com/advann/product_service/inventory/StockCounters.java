@@ -0,0 +1,55 @@
+package com.advann.product_service.inventory;
+
+import com.advann.product_service.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Single entry point for stock transitions: every transition is first offered to the Redis
+ * counters, which admit it if the product is hot; everything else uses the guarded UPDATEs.
+ * Same contract as the repository methods: 1 = applied, 0 = rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockCounters {
+
+    private final HotInventory hotInventory;
+    private final ProductRepository productRepository;
+
+    public int reserve(Long productId, int quantity) {
+
+        int admitted = onCounters(productId, () -> hotInventory.reserve(productId, quantity));
+
+        return admitted != HotInventory.NOT_HOT ? admitted : productRepository.reserveStock(productId, quantity);
+    }
+
+    public int confirm(Long productId, int quantity) {
+
+        int confirmed = onCounters(productId, () -> hotInventory.confirm(productId, quantity));
+
+        return confirmed != HotInventory.NOT_HOT ? confirmed : productRepository.confirmStock(productId, quantity);
+    }
+
+    public int release(Long productId, int quantity) {
+
+        int released = onCounters(productId, () -> hotInventory.release(productId, quantity));
+
+        return released != HotInventory.NOT_HOT ? released : productRepository.releaseStock(productId, quantity);
+    }
+
+    // Redis unreachable: products not flagged hot carry on in the database, hot ones cannot be admitted safely
+    private int onCounters(Long productId, IntSupplier transition) {
+
+        try {
+            return transition.getAsInt();
+        } catch (DataAccessException e) {
+            if (productRepository.existsByIdAndHotInventoryTrue(productId)) {
+                throw e;
+            }
+            return HotInventory.NOT_HOT;
+        }
+    }
+}
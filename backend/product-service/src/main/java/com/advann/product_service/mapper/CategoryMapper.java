@@ -0,0 +1,19 @@
+package com.advann.product_service.mapper;
+
+import com.advann.product_service.dto.CategoryResponseDto;
+import com.advann.product_service.dto.SubCategoryResponseDto;
+import com.advann.product_service.entity.Category;
+import com.advann.product_service.entity.SubCategory;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface CategoryMapper {
+
+    CategoryResponseDto toResponseDto(Category category);
+
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.name")
+    SubCategoryResponseDto toResponseDto(SubCategory subCategory);
+}
@@ -0,0 +1,16 @@
+package com.advann.product_service.mapper;
+
+import com.advann.product_service.dto.ProductImageResponseDto;
+import com.advann.product_service.entity.ProductImage;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ProductImageMapper {
+
+    // Gallery paths are full S3 URLs, so the URL fields mirror them
+    @Mapping(target = "imageUrl", source = "imagePath")
+    @Mapping(target = "thumbnailUrl", source = "thumbnailPath")
+    ProductImageResponseDto toResponseDto(ProductImage image);
+}
@@ -0,0 +1,74 @@
+package com.advann.product_service.mapper;
+
+import com.advann.product_service.dto.ProductRequestDto;
+import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.dto.ProductSummaryDto;
+import com.advann.product_service.entity.Product;
+import com.advann.product_service.repository.ProductSummaryView;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Product entity/projection to DTO conversions, generated at compile time by MapStruct
+ * (plain getter/setter calls, no reflection on the request path).
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public abstract class ProductMapper {
+
+    @Value("${app.base-url}")
+    protected String baseUrl;
+
+    // No-args constructor keeps the entity defaults (reservedStock = 0, empty image list)
+    @BeanMapping(builder = @Builder(disableBuilder = true))
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "subCategory", ignore = true)
+    @Mapping(target = "imagePath", ignore = true)
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "reservedStock", ignore = true)
+    @Mapping(target = "hotInventory", ignore = true)
+    public abstract Product toEntity(ProductRequestDto requestDto);
+
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.name")
+    @Mapping(target = "subCategoryId", source = "subCategory.id")
+    @Mapping(target = "subCategoryName", source = "subCategory.name")
+    @Mapping(target = "imageUrl", source = "imagePath", qualifiedByName = "imageUrl")
+    public abstract ProductResponseDto toResponseDto(Product product);
+
+    @Mapping(target = "imageUrl", source = "imagePath", qualifiedByName = "imageUrl")
+    public abstract ProductResponseDto toResponseDto(ProductSummaryView product);
+
+    // Catalog variants leave stock empty: it is overlaid live from ProductStockCache
+    @Mapping(target = "stock", ignore = true)
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.name")
+    @Mapping(target = "subCategoryId", source = "subCategory.id")
+    @Mapping(target = "subCategoryName", source = "subCategory.name")
+    @Mapping(target = "imageUrl", source = "imagePath", qualifiedByName = "imageUrl")
+    public abstract ProductResponseDto toCatalogDto(Product product);
+
+    @Mapping(target = "stock", ignore = true)
+    @Mapping(target = "imageUrl", source = "imagePath", qualifiedByName = "imageUrl")
+    public abstract ProductResponseDto toCatalogDto(ProductSummaryView product);
+
+    @Mapping(target = "stock", source = "stock")
+    public abstract ProductSummaryDto toSummaryDto(ProductResponseDto product, Integer stock);
+
+    @Named("imageUrl")
+    protected String imageUrl(String imagePath) {
+
+        if (imagePath == null || imagePath.isBlank()) {
+            return baseUrl + "/images/default.jpg";
+        }
+
+        // S3 imagePath already contains full URL
+        return imagePath;
+    }
+}
@@ -0,0 +1,12 @@
+package com.advann.product_service.mapper;
+
+import com.advann.product_service.dto.StockReservationResponseDto;
+import com.advann.product_service.entity.StockReservation;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface StockReservationMapper {
+
+    StockReservationResponseDto toResponseDto(StockReservation reservation);
+}
@@ -2,22 +2,253 @@ package com.advann.product_service.repository;
 
 
 import com.advann.product_service.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Read projections: product + category + subcategory in one joined select (no per-row lookups)
+    String SUMMARY_SELECT = """
+            SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, p.imagePath AS imagePath,
+                   p.version AS version,
+                   c.id AS categoryId, c.name AS categoryName,
+                   sc.id AS subCategoryId, sc.name AS subCategoryName
+            FROM Product p
+            LEFT JOIN p.category c
+            LEFT JOIN p.subCategory sc
+            """;
+
+    String NATIVE_SUMMARY_SELECT = """
+            SELECT p.id AS "id", p.name AS "name", p.price AS "price", p.stock AS "stock",
+                   p.image_path AS "imagePath", p.version AS "version",
+                   c.id AS "categoryId", c.name AS "categoryName",
+                   sc.id AS "subCategoryId", sc.name AS "subCategoryName"
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            LEFT JOIN sub_categories sc ON sc.id = p.sub_category_id
+            """;
+
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :id")
+    Optional<ProductSummaryView> findSummaryById(@Param("id") Long id);
+
+
+    @Query(SUMMARY_SELECT)
+    List<ProductSummaryView> findAllSummaries();
 
-    // Search by product name
-    Page<Product> findByNameContainingIgnoreCase(String keyword, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT count(p) FROM Product p")
+    Page<ProductSummaryView> findSummaries(Pageable pageable);
 
 
     // Filter by category
-    Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
+    @Query(
+            value = SUMMARY_SELECT + "WHERE p.category.id = :categoryId",
+            countQuery = "SELECT count(p) FROM Product p WHERE p.category.id = :categoryId"
+    )
+    Page<ProductSummaryView> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+
+    // Search by product name; pattern is a pre-escaped, lower-cased '%keyword%'
+    @Query(
+            value = SUMMARY_SELECT + "WHERE lower(p.name) LIKE :pattern ESCAPE '\\'",
+            countQuery = "SELECT count(p) FROM Product p WHERE lower(p.name) LIKE :pattern ESCAPE '\\'"
+    )
+    Page<ProductSummaryView> searchSummaries(@Param("pattern") String pattern, Pageable pageable);
 
 
     // Search + category filter combined
-    Page<Product> findByCategoryIdAndNameContainingIgnoreCase(Long categoryId, String keyword, Pageable pageable);
+    @Query(
+            value = SUMMARY_SELECT + "WHERE p.category.id = :categoryId AND lower(p.name) LIKE :pattern ESCAPE '\\'",
+            countQuery = "SELECT count(p) FROM Product p " +
+                    "WHERE p.category.id = :categoryId AND lower(p.name) LIKE :pattern ESCAPE '\\'"
+    )
+    Page<ProductSummaryView> searchSummariesByCategoryId(@Param("categoryId") Long categoryId,
+                                                         @Param("pattern") String pattern,
+                                                         Pageable pageable);
+
+
+    // Keyset (cursor) variants: seek past the last row instead of OFFSET, no count query.
+    // Scrolling only works on derived queries, so the entity graph joins the associations instead.
+    @EntityGraph(attributePaths = {"category", "subCategory"})
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+
+    @EntityGraph(attributePaths = {"category", "subCategory"})
+    Window<Product> findByCategoryId(Long categoryId, ScrollPosition position, Sort sort, Limit limit);
+
+
+    @EntityGraph(attributePaths = {"category", "subCategory"})
+    Window<Product> findByNameContainingIgnoreCase(String keyword, ScrollPosition position, Sort sort, Limit limit);
+
+
+    @EntityGraph(attributePaths = {"category", "subCategory"})
+    Window<Product> findByCategoryIdAndNameContainingIgnoreCase(Long categoryId, String keyword,
+                                                                ScrollPosition position, Sort sort, Limit limit);
+
+
+    // Keyset by price, written out because Spring Data's scrolling cannot seek past a NULL sort key.
+    // Unpriced rows (tables created before the NOT NULL mapping may hold them) come last in both directions, and a cursor
+    // on one continues through the rest of them by id. afterId = null is the first window.
+    String PRICE_WINDOW_SELECT = """
+            SELECT p FROM Product p
+            LEFT JOIN FETCH p.category
+            LEFT JOIN FETCH p.subCategory
+            WHERE (:categoryId IS NULL OR p.category.id = :categoryId)
+              AND (:pattern IS NULL OR lower(p.name) LIKE :pattern ESCAPE '\\')
+            """;
+
+    @Query(PRICE_WINDOW_SELECT + """
+              AND (:afterId IS NULL
+                   OR (:afterPrice IS NOT NULL AND (p.price > :afterPrice
+                                                    OR (p.price = :afterPrice AND p.id > :afterId)
+                                                    OR p.price IS NULL))
+                   OR (:afterPrice IS NULL AND p.price IS NULL AND p.id > :afterId))
+            ORDER BY p.price ASC NULLS LAST, p.id ASC
+            """)
+    List<Product> findPriceWindowAscending(@Param("categoryId") Long categoryId,
+                                           @Param("pattern") String pattern,
+                                           @Param("afterPrice") BigDecimal afterPrice,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+
+    @Query(PRICE_WINDOW_SELECT + """
+              AND (:afterId IS NULL
+                   OR (:afterPrice IS NOT NULL AND (p.price < :afterPrice
+                                                    OR (p.price = :afterPrice AND p.id < :afterId)
+                                                    OR p.price IS NULL))
+                   OR (:afterPrice IS NULL AND p.price IS NULL AND p.id < :afterId))
+            ORDER BY p.price DESC NULLS LAST, p.id DESC
+            """)
+    List<Product> findPriceWindowDescending(@Param("categoryId") Long categoryId,
+                                            @Param("pattern") String pattern,
+                                            @Param("afterPrice") BigDecimal afterPrice,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
+
+    // Ranked fuzzy search (pg_trgm): prefix matches first, then by word similarity.
+    // Backed by the GIN trigram index on lower(name), which also serves the LIKE searches above.
+    @Query(
+            value = NATIVE_SUMMARY_SELECT + """
+                    WHERE lower(p.name) LIKE :pattern OR :keyword <% lower(p.name)
+                    ORDER BY CASE WHEN lower(p.name) LIKE :prefix THEN 0 ELSE 1 END,
+                             word_similarity(:keyword, lower(p.name)) DESC,
+                             p.id
+                    """,
+            countQuery = """
+                    SELECT count(*) FROM products p
+                    WHERE lower(p.name) LIKE :pattern OR :keyword <% lower(p.name)
+                    """,
+            nativeQuery = true
+    )
+    Page<ProductSummaryView> searchRanked(@Param("keyword") String keyword,
+                                          @Param("pattern") String pattern,
+                                          @Param("prefix") String prefix,
+                                          Pageable pageable);
+
+
+    // Ranked fuzzy search within a category
+    @Query(
+            value = NATIVE_SUMMARY_SELECT + """
+                    WHERE p.category_id = :categoryId
+                      AND (lower(p.name) LIKE :pattern OR :keyword <% lower(p.name))
+                    ORDER BY CASE WHEN lower(p.name) LIKE :prefix THEN 0 ELSE 1 END,
+                             word_similarity(:keyword, lower(p.name)) DESC,
+                             p.id
+                    """,
+            countQuery = """
+                    SELECT count(*) FROM products p
+                    WHERE p.category_id = :categoryId
+                      AND (lower(p.name) LIKE :pattern OR :keyword <% lower(p.name))
+                    """,
+            nativeQuery = true
+    )
+    Page<ProductSummaryView> searchRankedByCategory(@Param("categoryId") Long categoryId,
+                                                    @Param("keyword") String keyword,
+                                                    @Param("pattern") String pattern,
+                                                    @Param("prefix") String prefix,
+                                                    Pageable pageable);
+
+
+    // Guarded stock transitions: one row-locked UPDATE each, 0 rows = not enough stock (or no such product).
+    // The version bump makes concurrent entity saves (admin edits) fail instead of overwriting these counters;
+    // rows from before the column existed have no version yet, and get one on their first transition.
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stock = p.stock - :quantity, p.reservedStock = p.reservedStock + :quantity, p.version = COALESCE(p.version, 0) + 1
+            WHERE p.id = :id AND p.stock >= :quantity
+            """)
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.reservedStock = p.reservedStock - :quantity, p.version = COALESCE(p.version, 0) + 1
+            WHERE p.id = :id AND p.reservedStock >= :quantity
+            """)
+    int confirmStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stock = p.stock + :quantity, p.reservedStock = p.reservedStock - :quantity, p.version = COALESCE(p.version, 0) + 1
+            WHERE p.id = :id AND p.reservedStock >= :quantity
+            """)
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+
+    // Write-behind for hot inventory: admission already happened on the Redis counters, so the
+    // accumulated deltas are applied in one UPDATE per product per flush. The guard only keeps a
+    // disagreement between the two sides from driving the columns negative; 0 rows = not applied.
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stock = p.stock + :stockDelta, p.reservedStock = p.reservedStock + :reservedDelta,
+                p.version = COALESCE(p.version, 0) + 1
+            WHERE p.id = :id
+              AND p.stock + :stockDelta >= 0
+              AND p.reservedStock + :reservedDelta >= 0
+            """)
+    int applyStockDelta(@Param("id") Long id,
+                        @Param("stockDelta") long stockDelta,
+                        @Param("reservedDelta") long reservedDelta);
+
+
+    @Modifying
+    @Query("UPDATE Product p SET p.hotInventory = :enabled WHERE p.id = :id")
+    int updateHotInventory(@Param("id") Long id, @Param("enabled") boolean enabled);
+
+
+    @Query("SELECT p.id FROM Product p WHERE p.hotInventory = true")
+    List<Long> findHotInventoryIds();
+
+    boolean existsByIdAndHotInventoryTrue(Long id);
+
+
+    // Live stock overlay for cached product data
+    List<ProductStockView> findByIdIn(Collection<Long> ids);
 }
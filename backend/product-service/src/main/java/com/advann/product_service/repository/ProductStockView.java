@@ -0,0 +1,11 @@
+package com.advann.product_service.repository;
+
+// Closed projection: Spring Data selects only the stock columns, no category joins
+public interface ProductStockView {
+
+    Long getId();
+
+    Integer getStock();
+
+    Integer getReservedStock();
+}
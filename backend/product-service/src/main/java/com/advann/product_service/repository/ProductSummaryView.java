@@ -0,0 +1,27 @@
+package com.advann.product_service.repository;
+
+import java.math.BigDecimal;
+
+// Flat read projection: product columns plus category/subcategory names from one joined query
+public interface ProductSummaryView {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getStock();
+
+    String getImagePath();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getSubCategoryId();
+
+    String getSubCategoryName();
+
+    Long getVersion();
+}
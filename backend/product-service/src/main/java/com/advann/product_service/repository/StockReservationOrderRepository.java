@@ -0,0 +1,28 @@
+package com.advann.product_service.repository;
+
+import com.advann.product_service.entity.StockReservationOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface StockReservationOrderRepository extends JpaRepository<StockReservationOrder, Long> {
+
+    // Waits for a concurrent first insert of the same order instead of failing the transaction
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_reservation_orders (order_id, released, created_at)
+            VALUES (:orderId, false, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StockReservationOrder o WHERE o.orderId = :orderId")
+    Optional<StockReservationOrder> lock(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,41 @@
+package com.advann.product_service.repository;
+
+import com.advann.product_service.entity.StockReservation;
+import com.advann.product_service.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Served by the (order_id, product_id) unique index, already in product order
+    List<StockReservation> findByOrderIdOrderByProductId(Long orderId);
+
+    // A duplicate (order, product) is skipped rather than failing, and so aborting, the transaction: 0 rows
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_reservations (order_id, product_id, quantity, status, created_at, updated_at)
+            VALUES (:orderId, :productId, :quantity, 'RESERVED', :now, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
+
+    // Guarded status change: 0 rows = the reservation already left the expected status
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = :target, r.updatedAt = :now
+            WHERE r.id = :id AND r.status = :expected
+            """)
+    int transition(@Param("id") Long id,
+                   @Param("expected") ReservationStatus expected,
+                   @Param("target") ReservationStatus target,
+                   @Param("now") LocalDateTime now);
+}
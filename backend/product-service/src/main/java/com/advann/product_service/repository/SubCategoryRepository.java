@@ -2,6 +2,7 @@ package com.advann.product_service.repository;
 
 import com.advann.product_service.entity.SubCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -9,5 +10,9 @@ public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>
 
     List<SubCategory> findByCategoryId(Long categoryId);
 
+    // Whole tree in one select, ordered so the snapshot ETag is stable across replicas
+    @Query("SELECT sc FROM SubCategory sc JOIN FETCH sc.category ORDER BY sc.id")
+    List<SubCategory> findAllWithCategory();
+
     boolean existsByNameIgnoreCaseAndCategoryId(String name, Long categoryId);
 }
\ No newline at end of file
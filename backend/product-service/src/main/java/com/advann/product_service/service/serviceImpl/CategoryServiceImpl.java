@@ -1,13 +1,14 @@
 package com.advann.product_service.service.serviceImpl;
 
+import com.advann.product_service.cache.CategoryTreeCache;
 import com.advann.product_service.dto.CategoryRequestDto;
 import com.advann.product_service.dto.CategoryResponseDto;
 import com.advann.product_service.entity.Category;
 import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.mapper.CategoryMapper;
 import com.advann.product_service.repository.CategoryRepository;
 import com.advann.product_service.service.services.CategoryService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,7 +18,8 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
 
     @Override
     public CategoryResponseDto createCategory(CategoryRequestDto requestDto) {
@@ -32,25 +34,32 @@ public class CategoryServiceImpl implements CategoryService {
 
         Category saved = categoryRepository.save(category);
 
-        return modelMapper.map(saved, CategoryResponseDto.class);
+        categoryTreeCache.invalidate();
+
+        return categoryMapper.toResponseDto(saved);
     }
 
     @Override
     public List<CategoryResponseDto> getAllCategories() {
 
-        return categoryRepository.findAll()
-                .stream()
-                .map(cat -> modelMapper.map(cat, CategoryResponseDto.class))
-                .toList();
+        return categoryTreeCache.current().categories();
     }
 
     @Override
     public CategoryResponseDto getCategoryById(Long id) {
 
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        CategoryResponseDto category = categoryTreeCache.current().categoriesById().get(id);
+
+        if (category == null) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
 
-        return modelMapper.map(category, CategoryResponseDto.class);
+        return category;
+    }
+
+    @Override
+    public String getCategoryTreeEtag() {
+        return categoryTreeCache.current().etag();
     }
 
     @Override
@@ -60,5 +69,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
         categoryRepository.delete(category);
+
+        categoryTreeCache.invalidate();
     }
 }
\ No newline at end of file
@@ -1,39 +1,56 @@
 package com.advann.product_service.service.serviceImpl;
 
+import com.advann.product_service.cache.ProductCatalogCache;
+import com.advann.product_service.cache.ProductPageCache;
+import com.advann.product_service.cache.ProductStockCache;
+import com.advann.product_service.config.ProductSearchIndexInitializer;
 import com.advann.product_service.dto.PagedResponseDto;
 import com.advann.product_service.dto.ProductImageResponseDto;
 import com.advann.product_service.dto.ProductRequestDto;
 import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.dto.ProductSummaryDto;
+import com.advann.product_service.dto.Versioned;
 import com.advann.product_service.entity.Category;
 import com.advann.product_service.entity.Product;
 import com.advann.product_service.entity.ProductImage;
 import com.advann.product_service.entity.SubCategory;
 import com.advann.product_service.exceptions.InvalidFileException;
 import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.inventory.HotInventory;
+import com.advann.product_service.inventory.HotInventoryWriteBehind;
+import com.advann.product_service.mapper.ProductImageMapper;
+import com.advann.product_service.mapper.ProductMapper;
 import com.advann.product_service.repository.CategoryRepository;
 import com.advann.product_service.repository.ProductImageRepository;
 import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.ProductSummaryView;
 import com.advann.product_service.repository.SubCategoryRepository;
 import com.advann.product_service.service.services.ProductService;
 import com.advann.product_service.service.services.S3Service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import net.coobird.thumbnailator.Thumbnails;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.*;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,25 +60,33 @@ public class ProductServiceImpl implements ProductService {
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final ProductImageMapper productImageMapper;
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
     private final ProductImageRepository productImageRepository;
     private final S3Service s3Service;
-
-    @Value("${app.base-url}")
-    private String baseUrl;
+    private final ProductPageCache productPageCache;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductStockCache productStockCache;
+    private final HotInventory hotInventory;
+    private final HotInventoryWriteBehind hotInventoryWriteBehind;
+    private final ProductSearchIndexInitializer productSearchIndexInitializer;
 
     private static final int MAX_GALLERY_IMAGES = 5;
 
+    private static final String DEFAULT_SORT_FIELD = "id";
+
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "name", "price");
+
+    private static final int MAX_BATCH_SIZE = 200;
+
     @Override
-    @CacheEvict(value = "productList", allEntries = true)
     public ProductResponseDto addProduct(ProductRequestDto productRequestDto) {
 
         log.info("Creating new product with name: {}", productRequestDto.getName());
 
-        Product product = modelMapper.map(productRequestDto, Product.class);
-        product.setId(null);
+        Product product = productMapper.toEntity(productRequestDto);
 
         Category category = categoryRepository.findById(productRequestDto.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -85,90 +110,95 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
-        log.info("Product created successfully with id: {}", savedProduct.getId());
-
-        ProductResponseDto responseDto = modelMapper.map(savedProduct, ProductResponseDto.class);
-
-        responseDto.setCategoryId(category.getId());
-        responseDto.setCategoryName(category.getName());
+        productPageCache.evictCategories(category.getId());
 
-        responseDto.setSubCategoryId(subCategory.getId());
-        responseDto.setSubCategoryName(subCategory.getName());
-
-        responseDto.setImageUrl(buildImageUrl(savedProduct.getImagePath()));
+        log.info("Product created successfully with id: {}", savedProduct.getId());
 
-        return responseDto;
+        return productMapper.toResponseDto(savedProduct);
     }
 
     @Override
-    @Cacheable("productList")
     public List<ProductResponseDto> getAllProducts() {
 
         log.info("Fetching all products");
 
-        List<Product> products = productRepository.findAll();
+        List<ProductSummaryView> products = productRepository.findAllSummaries();
 
         log.info("Total products found: {}", products.size());
 
         return products.stream()
-                .map(product -> {
+                .map(productMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Versioned<ProductResponseDto> getProductById(Long id) {
+
+        ProductResponseDto cached = productCatalogCache.getProduct(id, () -> loadProduct(id));
+        Integer stock = productStockCache.getStock(id);
+
+        // Catalog changes evict the cached entry (new version), stock changes show up in the stock part
+        String etag = cached.getVersion() != null
+                ? id + "-v" + cached.getVersion() + "-s" + stock
+                : null;
+
+        return new Versioned<>(etag, () -> withLiveStock(cached, stock));
+    }
+
+    @Override
+    public Map<Long, ProductSummaryDto> getProductSummaries(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " product ids per batch request");
+        }
+
+        Map<Long, ProductResponseDto> products = productCatalogCache.getProducts(ids, this::loadProducts);
+        Map<Long, Integer> stocks = productStockCache.getStocks(products.keySet());
+
+        // Keep the caller's order; unknown ids are simply left out
+        Map<Long, ProductSummaryDto> summaries = new LinkedHashMap<>();
 
-                    ProductResponseDto dto = modelMapper.map(product, ProductResponseDto.class);
+        for (Long id : ids) {
+            ProductResponseDto product = products.get(id);
+            if (product != null) {
+                summaries.putIfAbsent(id, productMapper.toSummaryDto(product, stocks.get(id)));
+            }
+        }
 
-                    dto.setImageUrl(buildImageUrl(product.getImagePath()));
+        return summaries;
+    }
 
-                    if (product.getCategory() != null) {
-                        dto.setCategoryId(product.getCategory().getId());
-                        dto.setCategoryName(product.getCategory().getName());
-                    }
+    private List<ProductResponseDto> loadProducts(Collection<Long> ids) {
 
-                    if (product.getSubCategory() != null) {
-                        dto.setSubCategoryId(product.getSubCategory().getId());
-                        dto.setSubCategoryName(product.getSubCategory().getName());
-                    }
+        log.info("Fetching {} products by id from DB", ids.size());
 
-                    return dto;
-                })
+        return productRepository.findSummariesByIdIn(ids)
+                .stream()
+                .map(productMapper::toCatalogDto)
                 .collect(Collectors.toList());
     }
 
-    @Override
-    @Cacheable(value = "products", key = "#id")
-    public ProductResponseDto getProductById(Long id) {
+    private ProductResponseDto loadProduct(Long id) {
 
         log.info("Fetching product by id from DB: {}", id);
 
-        Product product = productRepository.findById(id)
+        ProductSummaryView product = productRepository.findSummaryById(id)
                 .orElseThrow(() -> {
                     log.warn("Product not found with id: {}", id);
                     return new ResourceNotFoundException(
                             "Product not found with id: " + id);
                 });
 
-        ProductResponseDto dto =
-                modelMapper.map(product, ProductResponseDto.class);
-
-        dto.setImageUrl(buildImageUrl(product.getImagePath()));
-
-        if (product.getCategory() != null) {
-            dto.setCategoryId(product.getCategory().getId());
-            dto.setCategoryName(product.getCategory().getName());
-        }
-
-        if (product.getSubCategory() != null) {
-            dto.setSubCategoryId(product.getSubCategory().getId());
-            dto.setSubCategoryName(product.getSubCategory().getName());
-        }
-
-        return dto;
+        return productMapper.toCatalogDto(product);
     }
 
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#id")
     public ProductResponseDto updateProduct(Long id,
                                             ProductRequestDto productRequestDto) {
 
@@ -181,6 +211,8 @@ public class ProductServiceImpl implements ProductService {
                             "Product not found with id: " + id);
                 });
 
+        Long previousCategoryId = categoryIdOf(existing);
+
         existing.setName(productRequestDto.getName());
         existing.setPrice(productRequestDto.getPrice());
         existing.setStock(productRequestDto.getStock());
@@ -210,25 +242,13 @@ public class ProductServiceImpl implements ProductService {
 
         Product updated = productRepository.save(existing);
 
-        ProductResponseDto responseDto =
-                modelMapper.map(updated, ProductResponseDto.class);
+        productPageCache.evictCategories(previousCategoryId, category.getId());
+        productStockCache.evict(id);
 
-        responseDto.setCategoryId(category.getId());
-        responseDto.setCategoryName(category.getName());
-
-        responseDto.setSubCategoryId(subCategory.getId());
-        responseDto.setSubCategoryName(subCategory.getName());
-
-        responseDto.setImageUrl(
-                buildImageUrl(updated.getImagePath()));
-
-        return responseDto;
+        return productMapper.toResponseDto(updated);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#id"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
 
         log.info("Deleting product with id: {}", id);
@@ -256,11 +276,14 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.delete(existing);
 
+        productPageCache.evictCategories(categoryIdOf(existing));
+        productStockCache.evict(id);
+
         log.info("Product deleted successfully with id: {}", id);
     }
 
     @Override
-    public PagedResponseDto<ProductResponseDto> getAllProducts(
+    public Versioned<PagedResponseDto<ProductResponseDto>> getAllProducts(
             int page,
             int size,
             String sortBy,
@@ -269,43 +292,52 @@ public class ProductServiceImpl implements ProductService {
             Long categoryId
     ) {
 
+        String key = ProductPageCache.key(categoryId, page, size, sortBy, sortDir, keyword);
+
+        PagedResponseDto<ProductResponseDto> cached = productCatalogCache.getPage(
+                key, () -> loadProductPage(page, size, sortBy, sortDir, keyword, categoryId));
+
+        return withLiveStock(cached);
+    }
+
+    private PagedResponseDto<ProductResponseDto> loadProductPage(
+            int page,
+            int size,
+            String sortBy,
+            String sortDir,
+            String keyword,
+            Long categoryId
+    ) {
+
+        String sortField = sortBy != null ? sortBy : DEFAULT_SORT_FIELD;
+
         Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+                ? Sort.by(sortField).descending()
+                : Sort.by(sortField).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Product> productPage;
+        Page<ProductSummaryView> productPage;
 
-        if (categoryId != null && keyword != null && !keyword.isBlank()) {
-            productPage = productRepository.findByCategoryIdAndNameContainingIgnoreCase(categoryId, keyword, pageable);
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+
+        if (hasKeyword && isRankedSearch(sortBy)) {
+            productPage = searchRanked(keyword, categoryId, PageRequest.of(page, size));
+        } else if (categoryId != null && hasKeyword) {
+            productPage = productRepository.searchSummariesByCategoryId(categoryId, containsPattern(keyword), pageable);
         } else if (categoryId != null) {
-            productPage = productRepository.findByCategoryId(categoryId, pageable);
-        } else if (keyword != null && !keyword.isBlank()) {
-            productPage = productRepository.findByNameContainingIgnoreCase(keyword, pageable);
+            productPage = productRepository.findSummariesByCategoryId(categoryId, pageable);
+        } else if (hasKeyword) {
+            productPage = productRepository.searchSummaries(containsPattern(keyword), pageable);
         } else {
-            productPage = productRepository.findAll(pageable);
+            productPage = productRepository.findSummaries(pageable);
         }
 
         List<ProductResponseDto> products = productPage.getContent()
                 .stream()
-                .map(product -> ProductResponseDto.builder()
-                        .id(product.getId())
-                        .name(product.getName())
-                        .price(product.getPrice())
-                        .stock(product.getStock())
-
-                        .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
-                        .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
-
-                        .subCategoryId(product.getSubCategory() != null ? product.getSubCategory().getId() : null)
-                        .subCategoryName(product.getSubCategory() != null ? product.getSubCategory().getName() : null)
-
-                        .imagePath(product.getImagePath())
-                        .imageUrl(buildImageUrl(product.getImagePath()))
-                        .build()
-                )
-                .toList();
+                .map(productMapper::toCatalogDto)
+                // mutable list: the JSON cache serializer cannot rebuild immutable List implementations
+                .collect(Collectors.toList());
 
         return PagedResponseDto.<ProductResponseDto>builder()
                 .content(products)
@@ -318,10 +350,215 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    public Versioned<PagedResponseDto<ProductResponseDto>> getProductsByCursor(
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDir,
+            String keyword,
+            Long categoryId
+    ) {
+
+        // keyset windows are never ranked
+        String sortField = sortBy != null ? sortBy : DEFAULT_SORT_FIELD;
+
+        // Only the first window is shared by every client; deeper cursors are one-off keys
+        // that would fill the page cache without ever being hit again
+        if (cursor != null && !cursor.isBlank()) {
+            return withLiveStock(loadProductWindow(cursor, size, sortField, sortDir, keyword, categoryId));
+        }
+
+        String key = ProductPageCache.firstWindowKey(categoryId, size, sortField, sortDir, keyword);
+
+        PagedResponseDto<ProductResponseDto> cached = productCatalogCache.getPage(
+                key, () -> loadProductWindow(null, size, sortField, sortDir, keyword, categoryId));
+
+        return withLiveStock(cached);
+    }
+
+    private PagedResponseDto<ProductResponseDto> loadProductWindow(
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDir,
+            String keyword,
+            Long categoryId
+    ) {
+
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sortBy: " + CURSOR_SORT_FIELDS);
+        }
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        CursorPosition after = decodeCursor(cursor, sortBy, direction);
+
+        List<Product> rows;
+        boolean hasNext;
+
+        if (sortBy.equals("price")) {
+            rows = loadPriceWindow(after, size, direction, keyword, categoryId);
+            hasNext = rows.size() > size;
+            rows = hasNext ? rows.subList(0, size) : rows;
+        } else {
+            Window<Product> window = loadWindow(after, size, sortBy, direction, keyword, categoryId);
+            rows = window.getContent();
+            hasNext = window.hasNext();
+        }
+
+        List<ProductResponseDto> products = rows
+                .stream()
+                .map(productMapper::toCatalogDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext && !rows.isEmpty()
+                ? encodeCursor(rows.get(rows.size() - 1), sortBy, direction)
+                : null;
+
+        return PagedResponseDto.<ProductResponseDto>builder()
+                .content(products)
+                .pageNumber(0)
+                .pageSize(size)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Window<Product> loadWindow(CursorPosition after, int size, String sortBy, Sort.Direction direction,
+                                       String keyword, Long categoryId) {
+
+        // id breaks ties so every row has a unique position
+        Sort sort = sortBy.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+
+        ScrollPosition position = ScrollPosition.keyset();
+
+        if (after != null) {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (sortBy.equals("name")) {
+                keys.put("name", after.name());
+            }
+            keys.put("id", after.id());
+            position = ScrollPosition.forward(keys);
+        }
+
+        Limit limit = Limit.of(size);
+
+        if (categoryId != null && keyword != null && !keyword.isBlank()) {
+            return productRepository.findByCategoryIdAndNameContainingIgnoreCase(categoryId, keyword, position, sort, limit);
+        } else if (categoryId != null) {
+            return productRepository.findByCategoryId(categoryId, position, sort, limit);
+        } else if (keyword != null && !keyword.isBlank()) {
+            return productRepository.findByNameContainingIgnoreCase(keyword, position, sort, limit);
+        } else {
+            return productRepository.findAllBy(position, sort, limit);
+        }
+    }
+
+    // One row past the window tells whether there is a next one
+    private List<Product> loadPriceWindow(CursorPosition after, int size, Sort.Direction direction,
+                                          String keyword, Long categoryId) {
+
+        String pattern = keyword != null && !keyword.isBlank() ? containsPattern(keyword) : null;
+        Long afterId = after != null ? after.id() : null;
+        BigDecimal afterPrice = after != null ? after.price() : null;
+        Limit limit = Limit.of(size + 1);
+
+        return direction.isAscending()
+                ? productRepository.findPriceWindowAscending(categoryId, pattern, afterPrice, afterId, limit)
+                : productRepository.findPriceWindowDescending(categoryId, pattern, afterPrice, afterId, limit);
+    }
+
+    // Cursor layout (base64url): sortBy|direction|id|sortValue - opaque to clients.
+    // An empty sortValue on a price cursor stands for a row without a price.
+    private String encodeCursor(Product last, String sortBy, Sort.Direction direction) {
+
+        Object sortValue = switch (sortBy) {
+            case "name" -> last.getName();
+            case "price" -> last.getPrice() != null ? last.getPrice().toPlainString() : "";
+            default -> "";
+        };
+
+        String raw = sortBy + "|" + direction + "|" + last.getId() + "|" + sortValue;
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The row the cursor points past, or null for the first window
+    private CursorPosition decodeCursor(String cursor, String sortBy, Sort.Direction direction) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+
+            if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+
+            String name = sortBy.equals("name") ? parts[3] : null;
+            BigDecimal price = sortBy.equals("price") && !parts[3].isEmpty() ? new BigDecimal(parts[3]) : null;
+
+            return new CursorPosition(Long.valueOf(parts[2]), name, price);
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+    }
+
+    private record CursorPosition(Long id, String name, BigDecimal price) {
+    }
+
+    private String containsPattern(String keyword) {
+        return "%" + escapeLike(keyword.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private Versioned<PagedResponseDto<ProductResponseDto>> withLiveStock(PagedResponseDto<ProductResponseDto> cached) {
+
+        Map<Long, Integer> stocks = productStockCache.getStocks(
+                cached.getContent().stream().map(ProductResponseDto::getId).toList());
+
+        return new Versioned<>(pageEtag(cached, stocks), () -> cached.toBuilder()
+                .content(cached.getContent().stream()
+                        .map(dto -> withLiveStock(dto, stocks.get(dto.getId())))
+                        .toList())
+                .build());
+    }
+
+    // Hash of what the page renders: item versions + live stock, plus the paging metadata
+    private String pageEtag(PagedResponseDto<ProductResponseDto> page, Map<Long, Integer> stocks) {
+
+        StringBuilder content = new StringBuilder()
+                .append(page.getPageNumber()).append(':')
+                .append(page.getPageSize()).append(':')
+                .append(page.getTotalElements()).append(':')
+                .append(page.getTotalPages()).append(':')
+                .append(page.isLast()).append(':')
+                .append(page.getNextCursor()).append('\n');
+
+        for (ProductResponseDto product : page.getContent()) {
+            content.append(product.getId()).append(':')
+                    .append(product.getVersion()).append(':')
+                    .append(stocks.get(product.getId())).append('\n');
+        }
+
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @CacheEvict(value = "products", key = "#productId")
     public ProductResponseDto uploadProductImage(Long productId, MultipartFile file) {
 
         Product product = productRepository.findById(productId)
@@ -335,7 +572,9 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
-        ProductResponseDto dto = modelMapper.map(savedProduct, ProductResponseDto.class);
+        productPageCache.evictCategories(categoryIdOf(savedProduct));
+
+        ProductResponseDto dto = productMapper.toResponseDto(savedProduct);
         dto.setImageUrl(savedProduct.getImagePath());
 
         return dto;
@@ -376,21 +615,39 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
-    private String buildImageUrl(String imagePath) {
+    private boolean isRankedSearch(String sortBy) {
+        // only a search without a requested order is ranked; any sortBy, id included, keeps the
+        // LIKE finders, which the trigram index serves as well
+        return sortBy == null && productSearchIndexInitializer.isAvailable();
+    }
+
+    private Page<ProductSummaryView> searchRanked(String keyword, Long categoryId, Pageable pageable) {
 
-        if (imagePath == null || imagePath.isBlank()) {
-            return baseUrl + "/images/default.jpg";
-        }
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
 
-        // ✅ S3 imagePath already contains full URL
-        return imagePath;
+        String pattern = containsPattern(keyword);
+        String prefix = escapeLike(normalized) + "%";
+
+        log.info("Ranked product search for keyword: {}", normalized);
+
+        return categoryId != null
+                ? productRepository.searchRankedByCategory(categoryId, normalized, pattern, prefix, pageable)
+                : productRepository.searchRanked(normalized, pattern, prefix, pageable);
+    }
+
+    private ProductResponseDto withLiveStock(ProductResponseDto cached, Integer stock) {
+        // copy: the cached instance may be shared through the in-heap near cache
+        return cached.toBuilder()
+                .stock(stock)
+                .build();
+    }
+
+    private Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#productId")
     public ProductResponseDto deleteProductImage(Long productId) {
 
         Product product = productRepository.findById(productId)
@@ -407,17 +664,16 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
-        ProductResponseDto dto = modelMapper.map(savedProduct, ProductResponseDto.class);
+        productPageCache.evictCategories(categoryIdOf(savedProduct));
+
+        ProductResponseDto dto = productMapper.toResponseDto(savedProduct);
         dto.setImageUrl(null);
 
         return dto;
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#productId")
     public ProductResponseDto updateProductImage(Long productId, MultipartFile file) {
 
         Product product = productRepository.findById(productId)
@@ -435,17 +691,16 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
-        ProductResponseDto dto = modelMapper.map(savedProduct, ProductResponseDto.class);
+        productPageCache.evictCategories(categoryIdOf(savedProduct));
+
+        ProductResponseDto dto = productMapper.toResponseDto(savedProduct);
         dto.setImageUrl(savedProduct.getImagePath());
 
         return dto;
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#productId")
     public List<ProductImageResponseDto> uploadProductImages(Long productId, List<MultipartFile> files) {
 
         Product product = productRepository.findById(productId)
@@ -500,13 +755,7 @@ public class ProductServiceImpl implements ProductService {
 
                 ProductImage savedImage = productImageRepository.save(productImage);
 
-                responseList.add(ProductImageResponseDto.builder()
-                        .id(savedImage.getId())
-                        .imagePath(savedImage.getImagePath())
-                        .imageUrl(savedImage.getImagePath())
-                        .thumbnailPath(savedImage.getThumbnailPath())
-                        .thumbnailUrl(savedImage.getThumbnailPath())
-                        .build());
+                responseList.add(productImageMapper.toResponseDto(savedImage));
 
             } catch (Exception e) {
                 throw new InvalidFileException("Failed to upload image to S3.");
@@ -519,6 +768,8 @@ public class ProductServiceImpl implements ProductService {
             product.setImagePath(latestUploadedImage.getImagePath());
             productRepository.save(product);
 
+            productPageCache.evictCategories(categoryIdOf(product));
+
             log.info("Primary image updated to latest uploaded image for product id: {}", product.getId());
         }
 
@@ -534,21 +785,12 @@ public class ProductServiceImpl implements ProductService {
         List<ProductImage> images = productImageRepository.findByProductId(productId);
 
         return images.stream()
-                .map(img -> ProductImageResponseDto.builder()
-                        .id(img.getId())
-                        .imagePath(img.getImagePath())
-                        .imageUrl(img.getImagePath())
-                        .thumbnailPath(img.getThumbnailPath())
-                        .thumbnailUrl(img.getThumbnailPath())
-                        .build())
+                .map(productImageMapper::toResponseDto)
                 .toList();
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#productId")
     public void deleteProductImageById(Long imageId) {
 
         ProductImage productImage = productImageRepository.findById(imageId)
@@ -586,14 +828,13 @@ public class ProductServiceImpl implements ProductService {
             }
 
             productRepository.save(product);
+
+            productPageCache.evictCategories(categoryIdOf(product));
         }
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
+    @CacheEvict(value = "products", key = "#productId")
     public ProductResponseDto setPrimaryProductImage(Long imageId) {
 
         ProductImage productImage = productImageRepository.findById(imageId)
@@ -605,7 +846,9 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
-        ProductResponseDto dto = modelMapper.map(savedProduct, ProductResponseDto.class);
+        productPageCache.evictCategories(categoryIdOf(savedProduct));
+
+        ProductResponseDto dto = productMapper.toResponseDto(savedProduct);
         dto.setImageUrl(savedProduct.getImagePath());
 
         return dto;
@@ -627,13 +870,7 @@ public class ProductServiceImpl implements ProductService {
 
         List<ProductImageResponseDto> images = imagePage.getContent()
                 .stream()
-                .map(img -> ProductImageResponseDto.builder()
-                        .id(img.getId())
-                        .imagePath(img.getImagePath())
-                        .imageUrl(img.getImagePath())
-                        .thumbnailPath(img.getThumbnailPath())
-                        .thumbnailUrl(img.getThumbnailPath())
-                        .build())
+                .map(productImageMapper::toResponseDto)
                 .toList();
 
         return PagedResponseDto.<ProductImageResponseDto>builder()
@@ -648,84 +885,24 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
-    public void reserveStock(Long productId, Integer quantity) {
-
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
-        }
-
-        try {
-
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() ->
-                            new ResourceNotFoundException("Product not found with id: " + productId));
-
-            if (product.getStock() < quantity) {
-                throw new IllegalStateException("Insufficient stock for product id: " + productId);
-            }
-
-            product.setStock(product.getStock() - quantity);
-            product.setReservedStock(product.getReservedStock() + quantity);
-
-            productRepository.save(product);
+    public void setHotInventory(Long productId, boolean enabled) {
 
-        } catch (ObjectOptimisticLockingFailureException ex) {
-
-            throw new IllegalStateException(
-                    "Stock update conflict. Product was modified by another transaction. Please retry.");
-        }
-    }
-
-    @Override
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
-    public void confirmStock(Long productId, Integer quantity) {
-
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
-        }
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-
-        if (product.getReservedStock() < quantity) {
-            throw new IllegalStateException("Reserved stock is less than quantity for product id: " + productId);
-        }
-
-        product.setReservedStock(product.getReservedStock() - quantity);
-
-        productRepository.save(product);
-    }
-
-    @Override
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "products", key = "#productId"),
-            @CacheEvict(value = "productList", allEntries = true)
-    })
-    public void releaseStock(Long productId, Integer quantity) {
-
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be greater than zero");
+        if (productRepository.updateHotInventory(productId, enabled) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-
-        if (product.getReservedStock() < quantity) {
-            throw new IllegalStateException("Reserved stock is less than quantity for product id: " + productId);
-        }
-
-        product.setReservedStock(product.getReservedStock() - quantity);
-        product.setStock(product.getStock() + quantity);
+        // Counters change only once the flag is committed, so the reconciliation never sees them disagree
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (enabled) {
+                    hotInventoryWriteBehind.seed(productId);
+                } else {
+                    hotInventory.retire(productId);
+                }
+            }
+        });
 
-        productRepository.save(product);
+        log.info("Hot inventory {} for product id: {}", enabled ? "enabled" : "disabled", productId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,245 @@
+package com.advann.product_service.service.serviceImpl;
+
+import com.advann.product_service.cache.ProductStockCache;
+import com.advann.product_service.dto.StockBatchResultDto;
+import com.advann.product_service.dto.StockLineDto;
+import com.advann.product_service.dto.StockLineResultDto;
+import com.advann.product_service.dto.StockReservationResponseDto;
+import com.advann.product_service.entity.StockReservation;
+import com.advann.product_service.entity.StockReservationOrder;
+import com.advann.product_service.enums.ReservationStatus;
+import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.exceptions.StockBatchRejectedException;
+import com.advann.product_service.inventory.StockCounters;
+import com.advann.product_service.mapper.StockReservationMapper;
+import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.StockReservationOrderRepository;
+import com.advann.product_service.repository.StockReservationRepository;
+import com.advann.product_service.service.services.StockReservationService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Order-keyed stock reservations. Every unit in {@code Product.reservedStock} is backed by a
+ * ledger row (orderId, productId), so each call can be replayed: a repeated reserve finds its
+ * rows and changes nothing, confirm/release only move rows that are still RESERVED.
+ * <p>
+ * All calls are all-or-nothing and touch products in ascending id order (no deadlocks between
+ * concurrent batches). A rejected call rolls back through {@link StockBatchRejectedException}.
+ * <p>
+ * Reserve and release of one order are serialised on its {@link StockReservationOrder} row, and
+ * a release leaves that row as a tombstone: a reserve arriving after it (one whose caller timed
+ * out and compensated meanwhile) is rejected instead of holding stock nobody will release.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationOrderRepository stockReservationOrderRepository;
+    private final ProductRepository productRepository;
+    private final StockCounters stockCounters;
+    private final ProductStockCache productStockCache;
+    private final StockReservationMapper stockReservationMapper;
+
+    @Override
+    @Transactional
+    public StockBatchResultDto reserve(Long orderId, List<StockLineDto> lines) {
+
+        Map<Long, Integer> quantities = new TreeMap<>();
+
+        for (StockLineDto line : lines) {
+            validateQuantity(line.getQuantity());
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        if (lockOrder(orderId).isReleased()) {
+            return batchResult(quantities.entrySet().stream()
+                    .map(line -> lineResult(line.getKey(), line.getValue(),
+                            "Stock for order id: " + orderId + " was already released"))
+                    .toList());
+        }
+
+        Map<Long, StockReservation> held = stockReservationRepository.findByOrderIdOrderByProductId(orderId)
+                .stream()
+                .collect(Collectors.toMap(StockReservation::getProductId, Function.identity()));
+
+        List<StockLineResultDto> results = new ArrayList<>(quantities.size());
+        List<Long> reserved = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+
+            Long productId = line.getKey();
+            Integer quantity = line.getValue();
+            StockReservation existing = held.get(productId);
+
+            String rejection;
+
+            if (existing != null) {
+                // Replay: the units are already held (or were already given back) for this order
+                rejection = replayRejection(existing, quantity);
+            } else if (stockReservationRepository.insertIfAbsent(orderId, productId, quantity, LocalDateTime.now()) == 0) {
+                // the row came from a concurrent reserve of this order; never hold the units twice
+                rejection = "Reservation of product id: " + productId + " for order id: " + orderId
+                        + " changed concurrently, retry";
+            } else if (stockCounters.reserve(productId, quantity) == 1) {
+                reserved.add(productId);
+                rejection = null;
+            } else {
+                rejection = rejectionReason(productId, "Insufficient stock for product id: " + productId);
+            }
+
+            results.add(lineResult(productId, quantity, rejection));
+        }
+
+        StockBatchResultDto result = batchResult(results);
+
+        productStockCache.evict(reserved.toArray(Long[]::new));
+
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public StockBatchResultDto confirm(Long orderId) {
+
+        List<StockReservation> reservations = stockReservationRepository.findByOrderIdOrderByProductId(orderId);
+
+        if (reservations.isEmpty()) {
+            throw new ResourceNotFoundException("No stock reservations found for order id: " + orderId);
+        }
+
+        // available stock is unchanged by confirmation, so no cache entry is touched
+        return settle(reservations, ReservationStatus.CONFIRMED, stockCounters::confirm);
+    }
+
+    @Override
+    @Transactional
+    public StockBatchResultDto release(Long orderId) {
+
+        // Nothing held is a valid outcome: compensation may run for an order whose reserve never landed,
+        // or has not landed yet; the tombstone keeps it from landing afterwards
+        lockOrder(orderId).setReleased(true);
+
+        List<StockReservation> reservations = stockReservationRepository.findByOrderIdOrderByProductId(orderId);
+
+        StockBatchResultDto result = settle(reservations, ReservationStatus.RELEASED, stockCounters::release);
+
+        productStockCache.evict(reservations.stream()
+                .map(StockReservation::getProductId)
+                .toArray(Long[]::new));
+
+        return result;
+    }
+
+    @Override
+    public List<StockReservationResponseDto> getReservations(Long orderId) {
+
+        return stockReservationRepository.findByOrderIdOrderByProductId(orderId).stream()
+                .map(stockReservationMapper::toResponseDto)
+                .toList();
+    }
+
+    // Moves every RESERVED row of the order to the target status, applying the matching stock update.
+    // Rows already in the target status are replays and count as success.
+    private StockBatchResultDto settle(List<StockReservation> reservations,
+                                       ReservationStatus target,
+                                       ToIntBiFunction<Long, Integer> stockUpdate) {
+
+        List<StockLineResultDto> results = new ArrayList<>(reservations.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (StockReservation reservation : reservations) {
+
+            Long productId = reservation.getProductId();
+            String rejection = null;
+
+            if (reservation.getStatus() != target) {
+
+                if (reservation.getStatus() != ReservationStatus.RESERVED) {
+                    rejection = "Reservation of product id: " + productId + " for order id: "
+                            + reservation.getOrderId() + " is already " + reservation.getStatus();
+                } else if (stockReservationRepository.transition(
+                        reservation.getId(), ReservationStatus.RESERVED, target, now) == 0) {
+                    rejection = "Reservation of product id: " + productId + " for order id: "
+                            + reservation.getOrderId() + " changed concurrently, retry";
+                } else if (stockUpdate.applyAsInt(productId, reservation.getQuantity()) == 0) {
+                    rejection = rejectionReason(productId,
+                            "Reserved stock is less than quantity for product id: " + productId);
+                }
+            }
+
+            results.add(lineResult(productId, reservation.getQuantity(), rejection));
+        }
+
+        return batchResult(results);
+    }
+
+    // Waits for an in-flight reserve or release of the same order to commit first
+    private StockReservationOrder lockOrder(Long orderId) {
+
+        stockReservationOrderRepository.insertIfAbsent(orderId, LocalDateTime.now());
+
+        return stockReservationOrderRepository.lock(orderId)
+                .orElseThrow(() -> new IllegalStateException("Reservation record missing for order id: " + orderId));
+    }
+
+    private String replayRejection(StockReservation existing, Integer quantity) {
+
+        if (existing.getStatus() == ReservationStatus.RELEASED) {
+            return "Reservation of product id: " + existing.getProductId() + " for order id: "
+                    + existing.getOrderId() + " was already released";
+        }
+
+        if (!existing.getQuantity().equals(quantity)) {
+            return "Order id: " + existing.getOrderId() + " already holds " + existing.getQuantity()
+                    + " units of product id: " + existing.getProductId();
+        }
+
+        return null;
+    }
+
+    private StockLineResultDto lineResult(Long productId, Integer quantity, String rejection) {
+        return StockLineResultDto.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .success(rejection == null)
+                .message(rejection)
+                .build();
+    }
+
+    private StockBatchResultDto batchResult(List<StockLineResultDto> results) {
+
+        StockBatchResultDto result = StockBatchResultDto.builder()
+                .applied(results.stream().allMatch(StockLineResultDto::isSuccess))
+                .lines(results)
+                .build();
+
+        if (!result.isApplied()) {
+            throw new StockBatchRejectedException(result);
+        }
+
+        return result;
+    }
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+    }
+
+    // Only on the failure path: tell a missing product apart from a failed stock guard
+    private String rejectionReason(Long productId, String message) {
+        return productRepository.existsById(productId) ? message : "Product not found with id: " + productId;
+    }
+}
@@ -1,11 +1,13 @@
 package com.advann.product_service.service.serviceImpl;
 
+import com.advann.product_service.cache.CategoryTreeCache;
 import com.advann.product_service.dto.SubCategoryRequestDto;
 import com.advann.product_service.dto.SubCategoryResponseDto;
 import com.advann.product_service.entity.Category;
 import com.advann.product_service.entity.SubCategory;
 import com.advann.product_service.exceptions.ResourceAlreadyExistsException;
 import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.mapper.CategoryMapper;
 import com.advann.product_service.repository.CategoryRepository;
 import com.advann.product_service.repository.SubCategoryRepository;
 import com.advann.product_service.service.services.SubCategoryService;
@@ -20,6 +22,8 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
     private final SubCategoryRepository subCategoryRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
 
     @Override
     public SubCategoryResponseDto createSubCategory(SubCategoryRequestDto dto) {
@@ -38,58 +42,41 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
         SubCategory saved = subCategoryRepository.save(subCategory);
 
-        return SubCategoryResponseDto.builder()
-                .id(saved.getId())
-                .name(saved.getName())
-                .categoryId(category.getId())
-                .categoryName(category.getName())
-                .build();
+        categoryTreeCache.invalidate();
+
+        return categoryMapper.toResponseDto(saved);
     }
 
     @Override
     public List<SubCategoryResponseDto> getAllSubCategories() {
 
-        return subCategoryRepository.findAll()
-                .stream()
-                .map(sc -> SubCategoryResponseDto.builder()
-                        .id(sc.getId())
-                        .name(sc.getName())
-                        .categoryId(sc.getCategory().getId())
-                        .categoryName(sc.getCategory().getName())
-                        .build())
-                .toList();
+        return categoryTreeCache.current().subCategories();
     }
 
     @Override
     public List<SubCategoryResponseDto> getSubCategoriesByCategory(Long categoryId) {
 
-        // ✅ Check if category exists
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category is not present with id : " + categoryId));
-
-        return subCategoryRepository.findByCategoryId(categoryId)
-                .stream()
-                .map(sc -> SubCategoryResponseDto.builder()
-                        .id(sc.getId())
-                        .name(sc.getName())
-                        .categoryId(category.getId())
-                        .categoryName(category.getName())
-                        .build())
-                .toList();
+        List<SubCategoryResponseDto> subCategories =
+                categoryTreeCache.current().subCategoriesByCategory().get(categoryId);
+
+        // ✅ Category exists iff the snapshot has an entry for it (possibly empty)
+        if (subCategories == null) {
+            throw new ResourceNotFoundException("Category is not present with id : " + categoryId);
+        }
+
+        return subCategories;
     }
 
     @Override
     public SubCategoryResponseDto getSubCategoryById(Long id) {
 
-        SubCategory subCategory = subCategoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("SubCategory with id : " + id));
+        SubCategoryResponseDto subCategory = categoryTreeCache.current().subCategoriesById().get(id);
 
-        return SubCategoryResponseDto.builder()
-                .id(subCategory.getId())
-                .name(subCategory.getName())
-                .categoryId(subCategory.getCategory().getId())
-                .categoryName(subCategory.getCategory().getName())
-                .build();
+        if (subCategory == null) {
+            throw new ResourceNotFoundException("SubCategory with id : " + id);
+        }
+
+        return subCategory;
     }
 
     @Override
@@ -99,5 +86,7 @@ public class SubCategoryServiceImpl implements SubCategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("SubCategory not found with id : " + id));
 
         subCategoryRepository.delete(subCategory);
+
+        categoryTreeCache.invalidate();
     }
 }
\ No newline at end of file
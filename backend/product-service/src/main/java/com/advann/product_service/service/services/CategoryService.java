@@ -14,4 +14,7 @@ public interface CategoryService {
     CategoryResponseDto getCategoryById(Long id);
 
     void deleteCategory(Long id);
+
+    // Content version of the category/subcategory tree, used as the ETag of all tree reads
+    String getCategoryTreeEtag();
 }
\ No newline at end of file
@@ -4,19 +4,23 @@ import com.advann.product_service.dto.PagedResponseDto;
 import com.advann.product_service.dto.ProductImageResponseDto;
 import com.advann.product_service.dto.ProductRequestDto;
 import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.dto.ProductSummaryDto;
+import com.advann.product_service.dto.Versioned;
 import com.advann.product_service.entity.Product;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
 
     ProductResponseDto addProduct(ProductRequestDto product);
     List<ProductResponseDto> getAllProducts();
-    ProductResponseDto getProductById(Long id);
+    Versioned<ProductResponseDto> getProductById(Long id);
+    Map<Long, ProductSummaryDto> getProductSummaries(List<Long> ids);
     ProductResponseDto updateProduct(Long id, ProductRequestDto product);
     void deleteProduct(Long id);
-    PagedResponseDto<ProductResponseDto> getAllProducts(
+    Versioned<PagedResponseDto<ProductResponseDto>> getAllProducts(
             int page,
             int size,
             String sortBy,
@@ -24,6 +28,14 @@ public interface ProductService {
             String keyword,
             Long categoryId
     );
+    Versioned<PagedResponseDto<ProductResponseDto>> getProductsByCursor(
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDir,
+            String keyword,
+            Long categoryId
+    );
     ProductResponseDto uploadProductImage(Long productId, MultipartFile file);
     ProductResponseDto deleteProductImage(Long productId);
     ProductResponseDto updateProductImage(Long productId, MultipartFile file);
@@ -32,7 +44,5 @@ public interface ProductService {
     void deleteProductImageById(Long imageId);
     ProductResponseDto setPrimaryProductImage(Long imageId);
     PagedResponseDto<ProductImageResponseDto> getProductImagesWithPagination(Long productId, int page, int size, String sortDir);
-    void reserveStock(Long productId, Integer quantity);
-    void confirmStock(Long productId, Integer quantity);
-    void releaseStock(Long productId, Integer quantity);
+    void setHotInventory(Long productId, boolean enabled);
 }
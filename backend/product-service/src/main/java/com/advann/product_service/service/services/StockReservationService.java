@@ -0,0 +1,15 @@
+package com.advann.product_service.service.services;
+
+import com.advann.product_service.dto.StockBatchResultDto;
+import com.advann.product_service.dto.StockLineDto;
+import com.advann.product_service.dto.StockReservationResponseDto;
+
+import java.util.List;
+
+public interface StockReservationService {
+
+    StockBatchResultDto reserve(Long orderId, List<StockLineDto> lines);
+    StockBatchResultDto confirm(Long orderId);
+    StockBatchResultDto release(Long orderId);
+    List<StockReservationResponseDto> getReservations(Long orderId);
+}
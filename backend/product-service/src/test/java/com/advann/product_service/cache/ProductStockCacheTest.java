@@ -0,0 +1,142 @@
+package com.advann.product_service.cache;
+
+import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.ProductStockView;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs the guarded cache fill against a real Redis
+@Testcontainers(disabledWithoutDocker = true)
+class ProductStockCacheTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private ProductRepository productRepository;
+
+    private ProductStockCache productStockCache;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+
+        productRepository = mock(ProductRepository.class);
+        productStockCache = new ProductStockCache(redisTemplate, productRepository);
+        ReflectionTestUtils.setField(productStockCache, "ttl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void missIsLoadedOnceAndThenServedFromTheCache() {
+
+        when(productRepository.findByIdIn(any())).thenReturn(List.of(stock(PRODUCT_ID, 5)));
+
+        assertEquals(5, productStockCache.getStock(PRODUCT_ID));
+        assertEquals(5, productStockCache.getStock(PRODUCT_ID));
+
+        verify(productRepository, times(1)).findByIdIn(any());
+    }
+
+    @Test
+    void invalidatedEntryIsReloaded() {
+
+        when(productRepository.findByIdIn(any()))
+                .thenReturn(List.of(stock(PRODUCT_ID, 5)))
+                .thenReturn(List.of(stock(PRODUCT_ID, 3)));
+
+        assertEquals(5, productStockCache.getStock(PRODUCT_ID));
+        productStockCache.evict(PRODUCT_ID);
+
+        assertEquals(3, productStockCache.getStock(PRODUCT_ID));
+        assertEquals(3, productStockCache.getStock(PRODUCT_ID));
+    }
+
+    @Test
+    void readThatRacedAStockChangeDoesNotCacheTheOldLevel() {
+
+        // the stock changes (and is invalidated) between this read's DB query and its cache fill
+        when(productRepository.findByIdIn(any()))
+                .thenAnswer(invocation -> {
+                    productStockCache.evict(PRODUCT_ID);
+                    return List.of(stock(PRODUCT_ID, 5));
+                })
+                .thenReturn(List.of(stock(PRODUCT_ID, 3)));
+
+        assertEquals(5, productStockCache.getStock(PRODUCT_ID));
+
+        assertEquals(3, productStockCache.getStock(PRODUCT_ID));
+    }
+
+    @Test
+    void readOfAnInvalidatedEntryRacingTheNextChangeDoesNotCacheEither() {
+
+        productStockCache.evict(PRODUCT_ID);
+
+        when(productRepository.findByIdIn(any()))
+                .thenAnswer(invocation -> {
+                    productStockCache.evict(PRODUCT_ID);
+                    return List.of(stock(PRODUCT_ID, 5));
+                })
+                .thenReturn(List.of(stock(PRODUCT_ID, 3)));
+
+        assertEquals(5, productStockCache.getStock(PRODUCT_ID));
+
+        assertEquals(3, productStockCache.getStock(PRODUCT_ID));
+    }
+
+    private static ProductStockView stock(Long id, int stock) {
+        return new ProductStockView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+
+            @Override
+            public Integer getReservedStock() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.advann.product_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class TwoLevelCacheTest {
+
+    private static final String KEY = "1";
+
+    private RacingRemoteCache remoteCache;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = new RacingRemoteCache();
+        cache = new TwoLevelCache("products", Caffeine.newBuilder().build(), remoteCache, mock(NearCacheManager.class));
+    }
+
+    @Test
+    void remoteHitIsKeptInL1() {
+
+        remoteCache.put(KEY, "v1");
+
+        assertEquals("v1", cache.get(KEY).get());
+        assertEquals("v1", cache.getLocal(KEY));
+    }
+
+    @Test
+    void remoteReadOvertakenByAnEvictionIsNotKeptInL1() {
+
+        remoteCache.put(KEY, "v1");
+        // the broadcast for a newer write arrives while the L2 read is in flight
+        remoteCache.onNextGet = () -> cache.evictLocal(KEY);
+
+        assertEquals("v1", cache.get(KEY).get());
+
+        assertNull(cache.getLocal(KEY));
+    }
+
+    @Test
+    void bulkFillOvertakenByAnEvictionIsNotKeptInL1() {
+
+        long seenEvictions = cache.evictionCount();
+        cache.evictLocal(KEY);
+
+        cache.putLocal(KEY, "v1", seenEvictions);
+
+        assertNull(cache.getLocal(KEY));
+
+        cache.putLocal(KEY, "v2", cache.evictionCount());
+
+        assertEquals("v2", cache.getLocal(KEY));
+    }
+
+    // Stands in for Redis, running a hook in the middle of the next read
+    private static class RacingRemoteCache extends ConcurrentMapCache {
+
+        private Runnable onNextGet;
+
+        RacingRemoteCache() {
+            super("products");
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper value = super.get(key);
+            if (onNextGet != null) {
+                Runnable hook = onNextGet;
+                onNextGet = null;
+                hook.run();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.advann.product_service.controller;
+
+import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.dto.Versioned;
+import com.advann.product_service.service.services.ProductService;
+import com.advann.product_service.service.services.S3Service;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductController.class)
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private S3Service s3Service;
+
+    private final AtomicInteger bodiesBuilt = new AtomicInteger();
+
+    private void givenProduct(String etag) {
+
+        when(productService.getProductById(1L)).thenReturn(new Versioned<>(etag, () -> {
+            bodiesBuilt.incrementAndGet();
+            return ProductResponseDto.builder()
+                    .id(1L)
+                    .name("Phone")
+                    .price(BigDecimal.TEN)
+                    .stock(3)
+                    .version(7L)
+                    .build();
+        }));
+    }
+
+    @Test
+    void productDetailCarriesEtag() throws Exception {
+
+        givenProduct("1-v7-s3");
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-v7-s3\""))
+                .andExpect(jsonPath("$.data.name").value("Phone"));
+
+        assertEquals(1, bodiesBuilt.get());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModifiedWithoutBuildingBody() throws Exception {
+
+        givenProduct("1-v7-s3");
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-v7-s3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        assertEquals(0, bodiesBuilt.get());
+    }
+
+    @Test
+    void staleIfNoneMatchReturnsFullBody() throws Exception {
+
+        givenProduct("1-v8-s3");
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-v7-s3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-v8-s3\""));
+
+        assertEquals(1, bodiesBuilt.get());
+    }
+}
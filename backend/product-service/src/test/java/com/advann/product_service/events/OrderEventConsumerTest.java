@@ -0,0 +1,168 @@
+package com.advann.product_service.events;
+
+import com.advann.product_service.dto.StockBatchResultDto;
+import com.advann.product_service.exceptions.ResourceNotFoundException;
+import com.advann.product_service.exceptions.StockBatchRejectedException;
+import com.advann.product_service.service.services.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderEventConsumerTest {
+
+    private static final String STREAM = "order-events";
+    private static final String GROUP = "product-service";
+    private static final Long ORDER_ID = 100L;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    private OrderEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+
+        consumer = new OrderEventConsumer(stockReservationService, redisTemplate);
+        ReflectionTestUtils.setField(consumer, "stream", STREAM);
+        ReflectionTestUtils.setField(consumer, "consumerName", "product-1");
+        ReflectionTestUtils.setField(consumer, "batchSize", 50);
+        ReflectionTestUtils.setField(consumer, "redeliveryAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(consumer, "maxDeliveries", 10);
+
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of());
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(), anyLong()))
+                .thenReturn(new PendingMessages(GROUP, List.of()));
+    }
+
+    @Test
+    void eachEventIsAcknowledgedOnlyAfterItsReservationIsSettled() {
+
+        read(orderEvent("1-0", "ORDER_CONFIRMED"), orderEvent("2-0", "ORDER_CANCELLED"));
+
+        consumer.poll();
+
+        var order = inOrder(stockReservationService, streamOperations);
+        order.verify(stockReservationService).confirm(ORDER_ID);
+        order.verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("1-0"));
+        order.verify(stockReservationService).release(ORDER_ID);
+        order.verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("2-0"));
+    }
+
+    @Test
+    void eventOfAnotherTypeIsAcknowledgedWithoutSettling() {
+
+        read(orderEvent("1-0", "ORDER_REFUND_REQUIRED"));
+
+        consumer.poll();
+
+        verifyNoInteractions(stockReservationService);
+        verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("1-0"));
+    }
+
+    @Test
+    void failedSettlementStaysPendingForRedelivery() {
+
+        read(orderEvent("1-0", "ORDER_CONFIRMED"));
+        when(stockReservationService.confirm(ORDER_ID)).thenThrow(new IllegalStateException("connection refused"));
+
+        consumer.poll();
+
+        verify(streamOperations, never()).acknowledge(eq(STREAM), eq(GROUP), any(RecordId.class));
+    }
+
+    @Test
+    void settlementThatCannotSucceedIsDropped() {
+
+        read(orderEvent("1-0", "ORDER_CONFIRMED"), orderEvent("2-0", "ORDER_CANCELLED"));
+        // no ledger rows for an order placed before the ledger, and an order already confirmed
+        when(stockReservationService.confirm(ORDER_ID)).thenThrow(new ResourceNotFoundException("No reservation"));
+        when(stockReservationService.release(ORDER_ID))
+                .thenThrow(new StockBatchRejectedException(StockBatchResultDto.builder().build()));
+
+        consumer.poll();
+
+        verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("1-0"));
+        verify(streamOperations).acknowledge(STREAM, GROUP, RecordId.of("2-0"));
+    }
+
+    @Test
+    void eventHeldPastTheRedeliveryDelayIsReclaimedByThisInstance() {
+
+        RecordId stale = RecordId.of("1-0");
+        RecordId recent = RecordId.of("2-0");
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(), anyLong())).thenReturn(new PendingMessages(GROUP, List.of(
+                new PendingMessage(stale, Consumer.from(GROUP, "product-2"), Duration.ofMinutes(5), 1),
+                new PendingMessage(recent, Consumer.from(GROUP, "product-2"), Duration.ofSeconds(1), 1))));
+        when(streamOperations.claim(STREAM, GROUP, "product-1", Duration.ofSeconds(30), stale))
+                .thenReturn(List.of(orderEvent("1-0", "ORDER_CANCELLED")));
+
+        consumer.poll();
+
+        var order = inOrder(stockReservationService, streamOperations);
+        order.verify(stockReservationService).release(ORDER_ID);
+        order.verify(streamOperations).acknowledge(STREAM, GROUP, stale);
+        // still within its consumer's redelivery delay
+        verify(streamOperations, never()).claim(STREAM, GROUP, "product-1", Duration.ofSeconds(30), recent);
+    }
+
+    @Test
+    void eventDeliveredTooOftenIsGivenUpWithoutClaiming() {
+
+        RecordId poisoned = RecordId.of("1-0");
+        when(streamOperations.pending(eq(STREAM), eq(GROUP), any(), anyLong())).thenReturn(new PendingMessages(GROUP, List.of(
+                new PendingMessage(poisoned, Consumer.from(GROUP, "product-2"), Duration.ofMinutes(5), 10))));
+
+        consumer.poll();
+
+        verify(streamOperations, never()).claim(any(), any(), any(), any(Duration.class), any(RecordId.class));
+        verify(streamOperations).acknowledge(STREAM, GROUP, poisoned);
+    }
+
+    @SafeVarargs
+    private void read(MapRecord<String, Object, Object>... records) {
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(records));
+    }
+
+    private static MapRecord<String, Object, Object> orderEvent(String id, String type) {
+        return MapRecord.<String, Object, Object>create(STREAM, Map.of("type", type, "aggregateId", String.valueOf(ORDER_ID)))
+                .withId(RecordId.of(id));
+    }
+}
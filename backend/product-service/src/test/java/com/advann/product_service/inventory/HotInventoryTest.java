@@ -0,0 +1,138 @@
+package com.advann.product_service.inventory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the counter scripts against a real Redis
+@Testcontainers(disabledWithoutDocker = true)
+class HotInventoryTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private HotInventory hotInventory;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        hotInventory = new HotInventory(redisTemplate);
+    }
+
+    @Test
+    void productWithoutCountersIsNotHot() {
+        assertEquals(HotInventory.NOT_HOT, hotInventory.reserve(PRODUCT_ID, 1));
+        assertEquals(HotInventory.NOT_HOT, hotInventory.confirm(PRODUCT_ID, 1));
+        assertEquals(HotInventory.NOT_HOT, hotInventory.release(PRODUCT_ID, 1));
+    }
+
+    @Test
+    void reserveIsGuardedByStockAndRecordedAsPending() {
+
+        hotInventory.enable(PRODUCT_ID, 5, 0);
+
+        assertEquals(1, hotInventory.reserve(PRODUCT_ID, 3));
+        assertEquals(0, hotInventory.reserve(PRODUCT_ID, 3));
+
+        assertEquals(new HotInventory.Snapshot(2, 3, -3, 3), hotInventory.drain(PRODUCT_ID));
+        // draining zeroes the pending deltas, the counters stay
+        assertEquals(new HotInventory.Snapshot(2, 3, 0, 0), hotInventory.drain(PRODUCT_ID));
+    }
+
+    @Test
+    void confirmAndReleaseAreGuardedByReservedStock() {
+
+        hotInventory.enable(PRODUCT_ID, 5, 0);
+        hotInventory.reserve(PRODUCT_ID, 2);
+
+        assertEquals(0, hotInventory.confirm(PRODUCT_ID, 3));
+        assertEquals(1, hotInventory.confirm(PRODUCT_ID, 1));
+        assertEquals(1, hotInventory.release(PRODUCT_ID, 1));
+        assertEquals(0, hotInventory.release(PRODUCT_ID, 1));
+
+        assertEquals(new HotInventory.Snapshot(4, 0, -1, 0), hotInventory.drain(PRODUCT_ID));
+    }
+
+    @Test
+    void enablingAgainKeepsLiveCounters() {
+
+        hotInventory.enable(PRODUCT_ID, 5, 0);
+        hotInventory.reserve(PRODUCT_ID, 2);
+
+        hotInventory.enable(PRODUCT_ID, 9, 9);
+
+        assertEquals(new HotInventory.Snapshot(3, 2, -2, 2), hotInventory.drain(PRODUCT_ID));
+    }
+
+    @Test
+    void retiredProductStaysOnTheCountersUntilFlushed() {
+
+        hotInventory.enable(PRODUCT_ID, 5, 0);
+        hotInventory.reserve(PRODUCT_ID, 1);
+
+        hotInventory.retire(PRODUCT_ID);
+
+        // every instance keeps admitting on the counters while deltas are pending
+        assertEquals(1, hotInventory.reserve(PRODUCT_ID, 1));
+        assertEquals(Set.of(), hotInventory.hotProducts());
+        assertEquals(Set.of(PRODUCT_ID), hotInventory.retiringProducts());
+        assertFalse(hotInventory.deleteIfFlushed(PRODUCT_ID));
+
+        hotInventory.drain(PRODUCT_ID);
+
+        assertTrue(hotInventory.deleteIfFlushed(PRODUCT_ID));
+        assertEquals(HotInventory.NOT_HOT, hotInventory.reserve(PRODUCT_ID, 1));
+        assertEquals(Set.of(), hotInventory.retiringProducts());
+    }
+
+    @Test
+    void reserveInARolledBackTransactionIsUndone() {
+
+        hotInventory.enable(PRODUCT_ID, 5, 0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(1, hotInventory.reserve(PRODUCT_ID, 2));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(new HotInventory.Snapshot(5, 0, 0, 0), hotInventory.drain(PRODUCT_ID));
+    }
+}
@@ -0,0 +1,108 @@
+package com.advann.product_service.inventory;
+
+import com.advann.product_service.cache.ProductStockCache;
+import com.advann.product_service.entity.Product;
+import com.advann.product_service.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(HotInventoryWriteBehind.class)
+class HotInventoryWriteBehindTest {
+
+    @Autowired
+    private HotInventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private HotInventory hotInventory;
+
+    @MockBean
+    private ProductStockCache productStockCache;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(Product.builder()
+                .name("Hot SKU")
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .reservedStock(0)
+                .hotInventory(true)
+                .build()).getId();
+    }
+
+    @Test
+    void pendingDeltasAreWrittenInOneUpdate() {
+
+        // three units reserved on the counters since the last flush
+        when(hotInventory.drain(productId)).thenReturn(new HotInventory.Snapshot(7, 3, -3, 3));
+
+        writeBehind.flushProduct(productId);
+
+        assertLevels(7, 3);
+        verify(hotInventory, never()).correct(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void writesThatBypassedTheCountersAreReconciled() {
+
+        // a stock edit added five units in the database only
+        productRepository.applyStockDelta(productId, 5, 0);
+        when(hotInventory.drain(productId)).thenReturn(new HotInventory.Snapshot(7, 3, -3, 3));
+
+        writeBehind.flushProduct(productId);
+
+        assertLevels(12, 3);
+        verify(hotInventory).correct(productId, 5, 0);
+    }
+
+    @Test
+    void deltasThatWouldTakeStockNegativeStayPending() {
+
+        // the counters admitted more than the database holds: the two sides disagree
+        when(hotInventory.drain(productId)).thenReturn(new HotInventory.Snapshot(0, 12, -12, 12));
+
+        assertThrows(IllegalStateException.class, () -> writeBehind.flushProduct(productId));
+
+        assertLevels(10, 0);
+        verify(hotInventory).restorePending(productId, -12, 12);
+    }
+
+    @Test
+    void lostCountersAreSeededFromTheDatabase() {
+
+        when(hotInventory.drain(productId)).thenReturn(null);
+
+        writeBehind.flushProduct(productId);
+
+        verify(hotInventory).enable(productId, 10, 0);
+    }
+
+    private void assertLevels(int stock, int reservedStock) {
+        entityManager.clear();
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(stock, product.getStock());
+        assertEquals(reservedStock, product.getReservedStock());
+    }
+}
@@ -0,0 +1,114 @@
+package com.advann.product_service.mapper;
+
+import com.advann.product_service.dto.ProductResponseDto;
+import com.advann.product_service.entity.Category;
+import com.advann.product_service.entity.Product;
+import com.advann.product_service.entity.SubCategory;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a 1,000-product listing with the generated {@link ProductMapper} and with the
+ * reflective ModelMapper it replaced.
+ * <p>
+ * Not a unit test; run with:
+ * {@code mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.advann.product_service.mapper.ProductMapperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000;
+
+    private final List<Product> products = new ArrayList<>(PRODUCT_COUNT);
+
+    private ProductMapper productMapper;
+
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+
+        productMapper = new ProductMapperImpl();
+        productMapper.baseUrl = "http://localhost:8081";
+
+        modelMapper = new ModelMapper();
+
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+
+            Category category = Category.builder().id((long) i % 10).name("Category " + i % 10).build();
+            SubCategory subCategory = SubCategory.builder()
+                    .id((long) i % 50)
+                    .name("SubCategory " + i % 50)
+                    .category(category)
+                    .build();
+
+            products.add(Product.builder()
+                    .id((long) i)
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(100 + i))
+                    .stock(i)
+                    .reservedStock(0)
+                    .imagePath("https://bucket.s3.amazonaws.com/products/full/" + i + ".jpg")
+                    .category(category)
+                    .subCategory(subCategory)
+                    .build());
+        }
+
+        // ModelMapper builds its type map on first use; keep that out of the measurement
+        modelMapper.map(products.get(0), ProductResponseDto.class);
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> generatedMapper() {
+
+        List<ProductResponseDto> result = new ArrayList<>(products.size());
+
+        for (Product product : products) {
+            result.add(productMapper.toResponseDto(product));
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> modelMapper() {
+
+        List<ProductResponseDto> result = new ArrayList<>(products.size());
+
+        for (Product product : products) {
+            result.add(modelMapper.map(product, ProductResponseDto.class));
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder()
+                .include(ProductMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
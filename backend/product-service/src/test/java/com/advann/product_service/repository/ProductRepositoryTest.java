@@ -0,0 +1,201 @@
+package com.advann.product_service.repository;
+
+import com.advann.product_service.entity.Category;
+import com.advann.product_service.entity.Product;
+import com.advann.product_service.entity.SubCategory;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Long firstCategoryId;
+    private Long firstProductId;
+
+    @BeforeEach
+    void setUp() {
+
+        // like a table that predates the NOT NULL mapping; DDL commits, so it runs before any test data
+        entityManager.createNativeQuery("ALTER TABLE products ALTER COLUMN price SET NULL").executeUpdate();
+
+        for (int c = 0; c < 5; c++) {
+
+            Category category = Category.builder().name("Category " + c).build();
+            entityManager.persist(category);
+
+            for (int s = 0; s < 2; s++) {
+
+                SubCategory subCategory = SubCategory.builder()
+                        .name("SubCategory " + c + "-" + s)
+                        .category(category)
+                        .build();
+                entityManager.persist(subCategory);
+
+                for (int p = 0; p < 10; p++) {
+
+                    Product product = Product.builder()
+                            .name("Product " + c + "-" + s + "-" + p)
+                            .price(BigDecimal.valueOf(10 + p))
+                            .stock(5)
+                            .reservedStock(0)
+                            .category(category)
+                            .subCategory(subCategory)
+                            .build();
+                    entityManager.persist(product);
+
+                    if (firstProductId == null) {
+                        firstProductId = product.getId();
+                    }
+                }
+            }
+
+            if (firstCategoryId == null) {
+                firstCategoryId = category.getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingPageIsOneSelectPlusCount() {
+
+        Page<ProductSummaryView> page = productRepository.findSummaries(PageRequest.of(0, 100, Sort.by("price")));
+
+        assertEquals(100, page.getNumberOfElements());
+        assertEquals(100, page.getTotalElements());
+        page.forEach(product -> {
+            assertNotNull(product.getCategoryName());
+            assertNotNull(product.getSubCategoryName());
+        });
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summaryByIdIsSingleStatement() {
+
+        ProductSummaryView product = productRepository.findSummaryById(firstProductId).orElseThrow();
+
+        assertEquals("Category 0", product.getCategoryName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchLookupIsSingleStatement() {
+
+        List<ProductSummaryView> products = productRepository.findSummariesByIdIn(
+                List.of(firstProductId, firstProductId + 1, firstProductId + 2, -1L));
+
+        assertEquals(3, products.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void categorySearchIsSingleSelect() {
+
+        Page<ProductSummaryView> page = productRepository.searchSummariesByCategoryId(
+                firstCategoryId, "%product 0-1%", PageRequest.of(0, 50));
+
+        assertEquals(10, page.getNumberOfElements());
+        // a partial first page already knows its total, so Spring Data skips the count query
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetWindowIsSingleStatementWithoutCount() {
+
+        Window<Product> window = productRepository.findAllBy(
+                ScrollPosition.keyset(), Sort.by("price").and(Sort.by("id")), Limit.of(20));
+
+        assertEquals(20, window.size());
+        assertTrue(window.hasNext());
+        window.forEach(product -> assertNotNull(product.getSubCategory().getName()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void priceWindowsWalkPastUnpricedRowsInBothDirections() {
+
+        entityManager.createNativeQuery("UPDATE products SET price = NULL WHERE id IN (:ids)")
+                .setParameter("ids", List.of(firstProductId, firstProductId + 4, firstProductId + 15))
+                .executeUpdate();
+
+        for (boolean ascending : new boolean[] {true, false}) {
+
+            List<Product> seen = new ArrayList<>();
+            List<Product> window;
+
+            do {
+                Product last = seen.isEmpty() ? null : seen.get(seen.size() - 1);
+                BigDecimal afterPrice = last != null ? last.getPrice() : null;
+                Long afterId = last != null ? last.getId() : null;
+
+                window = ascending
+                        ? productRepository.findPriceWindowAscending(firstCategoryId, null, afterPrice, afterId, Limit.of(3))
+                        : productRepository.findPriceWindowDescending(firstCategoryId, null, afterPrice, afterId, Limit.of(3));
+                seen.addAll(window);
+            } while (window.size() == 3);
+
+            assertEquals(20, seen.size());
+            assertEquals(20, seen.stream().map(Product::getId).distinct().count());
+
+            // priced rows first, in order, then the unpriced ones
+            List<Product> priced = seen.subList(0, 17);
+            for (int i = 1; i < priced.size(); i++) {
+                int order = priced.get(i - 1).getPrice().compareTo(priced.get(i).getPrice());
+                assertTrue(ascending ? order <= 0 : order >= 0);
+            }
+            seen.subList(17, 20).forEach(product -> assertNull(product.getPrice()));
+        }
+    }
+
+    @Test
+    void stockTransitionGivesARowWithoutVersionItsFirstVersion() {
+
+        // rows that predate the version column hold NULL there
+        entityManager.createNativeQuery("UPDATE products SET version = NULL WHERE id = :id")
+                .setParameter("id", firstProductId)
+                .executeUpdate();
+
+        assertEquals(1, productRepository.reserveStock(firstProductId, 2));
+        entityManager.clear();
+
+        assertEquals(1L, productRepository.findById(firstProductId).orElseThrow().getVersion());
+    }
+}
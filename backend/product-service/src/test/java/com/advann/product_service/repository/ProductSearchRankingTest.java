@@ -0,0 +1,117 @@
+package com.advann.product_service.repository;
+
+import com.advann.product_service.entity.Category;
+import com.advann.product_service.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The ranked search is Postgres-only (pg_trgm), so it runs against a real one
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProductSearchRankingTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long phonesId;
+
+    @BeforeEach
+    void setUp() {
+
+        entityManager.createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm").executeUpdate();
+
+        Category phones = Category.builder().name("Phones").build();
+        Category cases = Category.builder().name("Cases").build();
+        entityManager.persist(phones);
+        entityManager.persist(cases);
+        phonesId = phones.getId();
+
+        // inserted so that id order differs from the expected ranking
+        persist("Rugged Phone Case", cases);
+        persist("Smartphone X", phones);
+        persist("Phone Stand", cases);
+        persist("Phon Charger", cases);
+        persist("Phone 12", phones);
+        persist("Laptop", cases);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void prefixMatchesRankAheadOfInfixAndFuzzyMatches() {
+
+        Page<ProductSummaryView> page = productRepository.searchRanked(
+                "phone", "%phone%", "phone%", PageRequest.of(0, 10));
+
+        List<String> names = page.map(ProductSummaryView::getName).getContent();
+
+        // the prefix matches first (ties by id), then the rest by word similarity; a near miss still matches
+        assertEquals(List.of("Phone Stand", "Phone 12"), names.subList(0, 2));
+        assertEquals(5, page.getTotalElements());
+        assertEquals("Phon Charger", names.get(names.size() - 1));
+    }
+
+    @Test
+    void rankedSearchWithinCategoryKeepsOnlyThatCategory() {
+
+        Page<ProductSummaryView> page = productRepository.searchRankedByCategory(
+                phonesId, "phone", "%phone%", "phone%", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Phone 12", "Smartphone X"), page.map(ProductSummaryView::getName).getContent());
+    }
+
+    @Test
+    void rankedSearchPagesWithTheSameOrder() {
+
+        Page<ProductSummaryView> first = productRepository.searchRanked(
+                "phone", "%phone%", "phone%", PageRequest.of(0, 2));
+        Page<ProductSummaryView> second = productRepository.searchRanked(
+                "phone", "%phone%", "phone%", PageRequest.of(1, 2));
+
+        assertEquals(List.of("Phone Stand", "Phone 12"), first.map(ProductSummaryView::getName).getContent());
+        assertEquals(2, second.getNumberOfElements());
+        assertEquals(5, second.getTotalElements());
+    }
+
+    private void persist(String name, Category category) {
+        entityManager.persist(Product.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(1)
+                .reservedStock(0)
+                .category(category)
+                .build());
+    }
+}
@@ -0,0 +1,177 @@
+package com.advann.product_service.repository;
+
+import com.advann.product_service.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark on one hot SKU: the old load/check/save path under @Version
+ * against the guarded conditional UPDATE. Both report reservations per second;
+ * only the conditional UPDATE is asserted to lose no reservations.
+ * <p>
+ * 800 transactions per run, so not part of the regular build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStockContentionTest.class);
+
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        productId = productRepository.save(Product.builder()
+                .name("Hot SKU")
+                .price(BigDecimal.TEN)
+                .stock(THREADS * RESERVATIONS_PER_THREAD)
+                .reservedStock(0)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void optimisticLoadAndSave() throws Exception {
+
+        Result result = run(() -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+
+            if (product.getStock() < 1) {
+                return false;
+            }
+
+            product.setStock(product.getStock() - 1);
+            product.setReservedStock(product.getReservedStock() + 1);
+            productRepository.save(product);
+            return true;
+        });
+
+        log.info("load/check/save (@Version): {}", result);
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(result.succeeded(), product.getReservedStock());
+    }
+
+    @Test
+    void conditionalUpdate() throws Exception {
+
+        Result result = run(() -> productRepository.reserveStock(productId, 1) == 1);
+
+        log.info("conditional UPDATE: {}", result);
+
+        Product product = productRepository.findById(productId).orElseThrow();
+
+        assertEquals(THREADS * RESERVATIONS_PER_THREAD, result.succeeded());
+        assertEquals(0, result.conflicts());
+        assertEquals(0, product.getStock());
+        assertEquals(THREADS * RESERVATIONS_PER_THREAD, product.getReservedStock());
+    }
+
+    @Test
+    void conditionalUpdateNeverOversells() {
+
+        transactionTemplate.executeWithoutResult(status -> productRepository.reserveStock(
+                productId, THREADS * RESERVATIONS_PER_THREAD));
+
+        Integer updated = transactionTemplate.execute(status -> productRepository.reserveStock(productId, 1));
+
+        assertEquals(0, updated);
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    private Result run(ReservationAttempt attempt) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    try {
+                        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> attempt.reserve()))) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        // what the old endpoint surfaced as "Please retry"
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        return new Result(succeeded.get(), conflicts.get(), elapsedNanos);
+    }
+
+    @FunctionalInterface
+    private interface ReservationAttempt {
+        boolean reserve();
+    }
+
+    private record Result(int succeeded, int conflicts, long elapsedNanos) {
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return String.format("%d reserved, %d conflicts, %.0f successful reservations/s",
+                    succeeded, conflicts, succeeded / seconds);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.advann.product_service.service;
+
+import com.advann.product_service.cache.ProductStockCache;
+import com.advann.product_service.dto.StockLineDto;
+import com.advann.product_service.entity.Product;
+import com.advann.product_service.enums.ReservationStatus;
+import com.advann.product_service.exceptions.StockBatchRejectedException;
+import com.advann.product_service.inventory.HotInventory;
+import com.advann.product_service.inventory.StockCounters;
+import com.advann.product_service.mapper.StockReservationMapperImpl;
+import com.advann.product_service.repository.ProductRepository;
+import com.advann.product_service.repository.StockReservationOrderRepository;
+import com.advann.product_service.repository.StockReservationRepository;
+import com.advann.product_service.service.serviceImpl.StockReservationServiceImpl;
+import com.advann.product_service.service.services.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Runs outside a test transaction so every service call commits (or rolls back) on its own, like a real retry.
+// H2 in PostgreSQL mode, for the ledger's INSERT ... ON CONFLICT.
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:stock_reservations;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockReservationServiceImpl.class, StockCounters.class, StockReservationMapperImpl.class})
+class StockReservationServiceTest {
+
+    private static final Long ORDER_ID = 42L;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private StockReservationOrderRepository stockReservationOrderRepository;
+
+    @MockBean
+    private ProductStockCache productStockCache;
+
+    // no counters for any product, so every transition runs the guarded UPDATEs
+    @MockBean
+    private HotInventory hotInventory;
+
+    private Long firstProductId;
+    private Long secondProductId;
+
+    @BeforeEach
+    void setUp() {
+        when(hotInventory.reserve(anyLong(), anyInt())).thenReturn(HotInventory.NOT_HOT);
+        when(hotInventory.confirm(anyLong(), anyInt())).thenReturn(HotInventory.NOT_HOT);
+        when(hotInventory.release(anyLong(), anyInt())).thenReturn(HotInventory.NOT_HOT);
+
+        firstProductId = productRepository.save(product("First", 10)).getId();
+        secondProductId = productRepository.save(product("Second", 1)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        stockReservationOrderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void replayedReserveDoesNotReserveTwice() {
+
+        List<StockLineDto> lines = List.of(new StockLineDto(firstProductId, 3), new StockLineDto(secondProductId, 1));
+
+        stockReservationService.reserve(ORDER_ID, lines);
+        assertTrue(stockReservationService.reserve(ORDER_ID, lines).isApplied());
+
+        assertLevels(firstProductId, 7, 3);
+        assertLevels(secondProductId, 0, 1);
+        assertEquals(2, stockReservationService.getReservations(ORDER_ID).size());
+    }
+
+    @Test
+    void rejectedReserveHoldsNothing() {
+
+        StockBatchRejectedException rejected = assertThrows(StockBatchRejectedException.class, () ->
+                stockReservationService.reserve(ORDER_ID,
+                        List.of(new StockLineDto(firstProductId, 3), new StockLineDto(secondProductId, 2))));
+
+        assertFalse(rejected.getResult().isApplied());
+        assertLevels(firstProductId, 10, 0);
+        assertTrue(stockReservationService.getReservations(ORDER_ID).isEmpty());
+    }
+
+    @Test
+    void confirmAndReleaseAreIdempotent() {
+
+        stockReservationService.reserve(ORDER_ID, List.of(new StockLineDto(firstProductId, 3)));
+
+        stockReservationService.confirm(ORDER_ID);
+        stockReservationService.confirm(ORDER_ID);
+        assertLevels(firstProductId, 7, 0);
+
+        // sold units cannot be given back
+        assertThrows(StockBatchRejectedException.class, () -> stockReservationService.release(ORDER_ID));
+        assertEquals(ReservationStatus.CONFIRMED, stockReservationService.getReservations(ORDER_ID).get(0).getStatus());
+
+        stockReservationService.reserve(ORDER_ID + 1, List.of(new StockLineDto(firstProductId, 2)));
+
+        stockReservationService.release(ORDER_ID + 1);
+        stockReservationService.release(ORDER_ID + 1);
+        assertLevels(firstProductId, 7, 0);
+    }
+
+    @Test
+    void releaseWithoutReservationIsNoOp() {
+        assertTrue(stockReservationService.release(ORDER_ID).isApplied());
+    }
+
+    @Test
+    void reserveArrivingAfterItsReleaseIsRejected() {
+
+        // the caller timed out on the reserve and compensated before the reserve got here
+        stockReservationService.release(ORDER_ID);
+
+        assertThrows(StockBatchRejectedException.class, () ->
+                stockReservationService.reserve(ORDER_ID, List.of(new StockLineDto(firstProductId, 3))));
+
+        assertLevels(firstProductId, 10, 0);
+        assertTrue(stockReservationService.getReservations(ORDER_ID).isEmpty());
+    }
+
+    private void assertLevels(Long productId, int stock, int reservedStock) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(stock, product.getStock());
+        assertEquals(reservedStock, product.getReservedStock());
+    }
+
+    private Product product(String name, int stock) {
+        return Product.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .reservedStock(0)
+                .build();
+    }
+}